@@ -0,0 +1,14 @@
+package com.jargoyle.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled} for background housekeeping (deletion jobs and stored file
+ * cleanup). The pool size is set with {@code spring.task.scheduling.pool.size} so one slow
+ * task doesn't hold up the others.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
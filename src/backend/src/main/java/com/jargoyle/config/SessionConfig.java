@@ -0,0 +1,55 @@
+package com.jargoyle.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import com.jargoyle.session.JdbcSessionStore;
+import com.jargoyle.session.SessionAttributeCodec;
+import com.jargoyle.session.SessionStore;
+import com.jargoyle.session.SharedSessionRepository;
+
+/**
+ * Moves HTTP sessions out of the servlet container and into a shared store, so the app can run
+ * on more than one node without sticky sessions. Only loaded when {@code jargoyle.session.store}
+ * is set; without it the container's in-memory sessions are used as before.
+ *
+ * <p>Spring Session's filter wraps every request, so Spring Security, the OAuth2 login flow
+ * and {@code AuthController.logout} all keep using the plain {@code HttpSession} API.
+ */
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(prefix = "jargoyle.session", name = "store")
+public class SessionConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jargoyle.session", name = "store", havingValue = "jdbc")
+    SessionStore jdbcSessionStore(JdbcTemplate jdbcTemplate) {
+        return new JdbcSessionStore(jdbcTemplate);
+    }
+
+    @Bean
+    SharedSessionRepository sessionRepository(
+            SessionStore sessionStore,
+            @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+            @Value("${jargoyle.session.near-cache-size:1000}") int nearCacheSize,
+            @Value("${jargoyle.session.near-cache-ttl:5s}") Duration nearCacheTtl,
+            @Value("${jargoyle.session.touch-interval:1m}") Duration touchInterval,
+            @Value("${jargoyle.session.sweep-interval:1m}") Duration sweepInterval,
+            @Value("${jargoyle.session.sweep-batch-size:500}") int sweepBatchSize) {
+        return new SharedSessionRepository(
+            sessionStore,
+            new SessionAttributeCodec(getClass().getClassLoader()),
+            timeout,
+            nearCacheSize,
+            nearCacheTtl,
+            touchInterval,
+            sweepInterval,
+            sweepBatchSize);
+    }
+}
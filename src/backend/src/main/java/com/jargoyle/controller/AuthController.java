@@ -1,17 +1,17 @@
 package com.jargoyle.controller;
 
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.jargoyle.dto.UserDto;
-import com.jargoyle.repository.UserRepository;
+import com.jargoyle.service.DeletionService;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -19,10 +19,12 @@ import jakarta.servlet.http.HttpServletRequest;
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    private final UserRepository _userRepository;
+    private final AuthenticatedUserResolver _authenticatedUserResolver;
+    private final DeletionService _deletionService;
 
-    public AuthController(UserRepository userRepository) {
-        _userRepository = userRepository;
+    public AuthController(AuthenticatedUserResolver authenticatedUserResolver, DeletionService deletionService) {
+        _authenticatedUserResolver = authenticatedUserResolver;
+        _deletionService = deletionService;
     }
 
     /**
@@ -35,25 +37,39 @@ public class AuthController {
             @AuthenticationPrincipal OidcUser oidcUser,
             OAuth2AuthenticationToken authToken) {
 
-        if (oidcUser == null || authToken == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+        var user = _authenticatedUserResolver.resolve(oidcUser, authToken);
+        var dto = new UserDto(user.getId(), user.getEmail(), user.getDisplayName(), user.getOauthProvider());
+        return ResponseEntity.ok(dto);
+    }
+
+    /**
+     * Deletes the current user's account and everything they own. The account is soft-deleted
+     * and the session invalidated straight away; documents, summaries and stored files are
+     * removed in the background. Returns 202 with no body, including when a deletion is
+     * already underway. The caller can't follow the deletion job once logged out, so its
+     * progress is only visible to operators, in the {@code jargoyle.deletion.*} metrics and logs.
+     */
+    @DeleteMapping("/me")
+    public ResponseEntity<Void> deleteAccount(
+            @AuthenticationPrincipal OidcUser oidcUser,
+            OAuth2AuthenticationToken authToken,
+            HttpServletRequest request) {
 
-        var provider = authToken.getAuthorizedClientRegistrationId();
-        var subject = oidcUser.getName();
+        var user = _authenticatedUserResolver.resolve(oidcUser, authToken);
+        _deletionService.requestAccountDeletion(user.getId());
 
-        var localUser = _userRepository.findByOauthProviderAndOauthSubject(provider, subject);
-        if (localUser.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        var session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
         }
-
-        var user = localUser.get();
-        var dto = new UserDto(user.getId(), user.getEmail(), user.getDisplayName(), user.getOauthProvider());
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.accepted().build();
     }
 
     /**
      * Logs out the current user by invalidating the HTTP session and clearing the security context.
+     * When a shared session store is configured (see {@code SessionConfig}), invalidating also
+     * deletes the stored session. Other nodes may still have it near-cached and keep serving it
+     * as authenticated for up to {@code jargoyle.session.near-cache-ttl} (5s by default).
      */
     @PostMapping("/logout")
     public ResponseEntity<Void> logout(HttpServletRequest request) {
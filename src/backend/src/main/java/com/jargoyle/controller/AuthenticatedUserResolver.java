@@ -0,0 +1,42 @@
+package com.jargoyle.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.jargoyle.entity.User;
+import com.jargoyle.repository.UserRepository;
+
+/**
+ * Resolves the authenticated OIDC principal to the local {@link User}. Shared by every
+ * controller that needs the current user's ID to scope its queries.
+ */
+@Component
+public class AuthenticatedUserResolver {
+
+    private final UserRepository _userRepository;
+
+    public AuthenticatedUserResolver(UserRepository userRepository) {
+        _userRepository = userRepository;
+    }
+
+    /**
+     * Resolves the OIDC principal to the local User entity.
+     * Throws ResponseStatusException(401) if there's no principal, the user doesn't exist
+     * locally, or the account has been deleted.
+     */
+    public User resolve(OidcUser oidcUser, OAuth2AuthenticationToken authToken) {
+        if (oidcUser == null || authToken == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+
+        var provider = authToken.getAuthorizedClientRegistrationId();
+        var subject = oidcUser.getName();
+
+        return _userRepository.findByOauthProviderAndOauthSubject(provider, subject)
+            .filter(user -> !user.isDeleted())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+    }
+}
@@ -0,0 +1,43 @@
+package com.jargoyle.controller;
+
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jargoyle.dto.DeletionJobResponse;
+import com.jargoyle.service.DeletionService;
+
+@RestController
+@RequestMapping("/api/deletions")
+public class DeletionController {
+
+    private final AuthenticatedUserResolver _authenticatedUserResolver;
+    private final DeletionService _deletionService;
+
+    public DeletionController(AuthenticatedUserResolver authenticatedUserResolver, DeletionService deletionService) {
+        _authenticatedUserResolver = authenticatedUserResolver;
+        _deletionService = deletionService;
+    }
+
+    /**
+     * Returns the progress of one of the current user's deletion jobs, or 404.
+     * Account deletion jobs can't be polled here once the account is gone, since the
+     * caller no longer resolves to a user.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<DeletionJobResponse> get(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal OidcUser oidcUser,
+            OAuth2AuthenticationToken authToken) {
+
+        var user = _authenticatedUserResolver.resolve(oidcUser, authToken);
+        return ResponseEntity.of(_deletionService.findJob(id, user.getId()).map(DeletionService::toResponse));
+    }
+}
@@ -0,0 +1,112 @@
+package com.jargoyle.controller;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.jargoyle.dto.DeletionJobResponse;
+import com.jargoyle.dto.DocumentResponse;
+import com.jargoyle.dto.DocumentVersion;
+import com.jargoyle.service.DeletionService;
+import com.jargoyle.service.DocumentService;
+
+@RestController
+@RequestMapping("/api/documents")
+public class DocumentController {
+
+    // Let the browser keep document views, but make it revalidate with the ETag every time.
+    // Setting this also stops Spring Security from adding its blanket "no-store".
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final AuthenticatedUserResolver _authenticatedUserResolver;
+    private final DocumentService _documentService;
+    private final DeletionService _deletionService;
+
+    public DocumentController(
+            AuthenticatedUserResolver authenticatedUserResolver,
+            DocumentService documentService,
+            DeletionService deletionService) {
+        _authenticatedUserResolver = authenticatedUserResolver;
+        _documentService = documentService;
+        _deletionService = deletionService;
+    }
+
+    /**
+     * Returns a document with its summary, or 404 if it doesn't exist or belongs to someone else.
+     *
+     * <p>Supports conditional GETs. The ETag and Last-Modified come from the document's
+     * {@code updatedAt} and the summary's {@code generatedAt}, which are checked first with a
+     * timestamp-only query; a matching {@code If-None-Match} or {@code If-Modified-Since} gets
+     * a 304 without the document or summary ever being loaded.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<DocumentResponse> get(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal OidcUser oidcUser,
+            OAuth2AuthenticationToken authToken,
+            WebRequest webRequest) {
+
+        var user = _authenticatedUserResolver.resolve(oidcUser, authToken);
+        var version = _documentService.getVersion(id, user.getId());
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Also sets the ETag and Last-Modified headers on the response either way.
+        if (webRequest.checkNotModified(etagFor(version.get()), lastModifiedOf(version.get()).toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+
+        return _documentService.getDocument(id, user.getId())
+            .map(document -> ResponseEntity.ok().cacheControl(REVALIDATE).body(document))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Deletes a document and all related data. The document disappears from every query
+     * immediately; its rows and stored file are removed in the background, so this returns
+     * 202 with the deletion job rather than waiting. Returns 404 if the document doesn't
+     * exist or belongs to someone else.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<DeletionJobResponse> delete(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal OidcUser oidcUser,
+            OAuth2AuthenticationToken authToken) {
+
+        var user = _authenticatedUserResolver.resolve(oidcUser, authToken);
+        return _deletionService.requestDocumentDeletion(id, user.getId())
+            .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(DeletionService.toResponse(job)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Weak, because response compression means the bytes on the wire vary.
+    private static String etagFor(DocumentVersion version) {
+        return "W/\"" + toHex(version.updatedAt()) + "-" + toHex(version.summaryGeneratedAt()) + "\"";
+    }
+
+    private static Instant lastModifiedOf(DocumentVersion version) {
+        var summaryGeneratedAt = version.summaryGeneratedAt();
+        if (summaryGeneratedAt == null || summaryGeneratedAt.isBefore(version.updatedAt())) {
+            return version.updatedAt();
+        }
+        return summaryGeneratedAt;
+    }
+
+    private static String toHex(Instant instant) {
+        return instant == null ? "0" : Long.toHexString(ChronoUnit.MICROS.between(Instant.EPOCH, instant));
+    }
+}
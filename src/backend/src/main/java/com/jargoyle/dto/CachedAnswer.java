@@ -0,0 +1,15 @@
+package com.jargoyle.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Internal DTO for an assistant answer held by
+ * {@link com.jargoyle.service.AnswerCacheService AnswerCacheService}.
+ * Carries the same content and chunk attribution as the original assistant message,
+ * so a cache hit can be returned to the client exactly like a fresh answer.
+ */
+public record CachedAnswer(
+    String content,
+    List<UUID> sourceChunks
+) {}
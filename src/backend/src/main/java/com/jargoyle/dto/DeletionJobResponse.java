@@ -0,0 +1,21 @@
+package com.jargoyle.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a background deletion. {@code documentsTotal} is null until a worker has
+ * picked the job up.
+ */
+public record DeletionJobResponse(
+    UUID id,
+    UUID documentId,   // Null for account deletion
+    String status,
+    Integer documentsTotal,
+    int documentsDeleted,
+    int filesQueued,
+    String errorMessage,   // Last error, also set while a failed attempt is waiting to be retried
+    int attempts,
+    Instant createdAt,
+    Instant completedAt
+) {}
@@ -1,7 +1,13 @@
 package com.jargoyle.dto;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * {@code keyFacts} and {@code flaggedTerms} hold the JSONB exactly as stored and are written
+ * into the response as JSON, not as escaped strings, so neither side re-parses them.
+ */
 public record DocumentSummaryResponse(
     String plainSummary,
-    String keyFacts,
-    String flaggedTerms
+    @JsonRawValue String keyFacts,
+    @JsonRawValue String flaggedTerms
 ) {}
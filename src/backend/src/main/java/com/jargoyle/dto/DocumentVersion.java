@@ -0,0 +1,12 @@
+package com.jargoyle.dto;
+
+import java.time.Instant;
+
+/**
+ * Internal projection of the two timestamps that decide whether a document view has changed.
+ * Loaded on its own so conditional GETs can be answered without touching the text columns.
+ */
+public record DocumentVersion(
+    Instant updatedAt,
+    Instant summaryGeneratedAt   // Null until a summary exists
+) {}
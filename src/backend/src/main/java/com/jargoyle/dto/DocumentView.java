@@ -0,0 +1,27 @@
+package com.jargoyle.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.jargoyle.entity.DocumentStatus;
+import com.jargoyle.entity.DocumentType;
+import com.jargoyle.entity.InputType;
+
+/**
+ * Internal projection of a document and its summary for {@link DocumentResponse}. Selects only
+ * the columns the response needs, so {@code extracted_text} is never read for a document view.
+ */
+public record DocumentView(
+    UUID id,
+    String title,
+    DocumentType documentType,
+    InputType inputType,
+    String originalFilename,
+    DocumentStatus status,
+    String errorMessage,
+    Instant createdAt,
+    UUID summaryId,        // Null until a summary exists
+    String plainSummary,
+    String keyFacts,       // JSON
+    String flaggedTerms    // JSON
+) {}
@@ -0,0 +1,28 @@
+package com.jargoyle.dto;
+
+import java.util.UUID;
+
+import com.jargoyle.entity.DocumentType;
+
+/**
+ * Internal DTO describing how to summarise a document that closely matches one the user has
+ * uploaded before. Only {@code changedText} and {@code removedText} need to go to the LLM, with
+ * the previous summary as context. The LLM should return the full updated list for every
+ * key-fact category it touches, and the full updated flagged terms if any changed;
+ * {@link com.jargoyle.service.IncrementalSummaryService#applyDelta applyDelta} carries forward
+ * whatever it leaves out.
+ */
+public record IncrementalSummaryPlan(
+    UUID previousDocumentId,
+    DocumentType documentType,
+    String changedText,            // New or changed sections, in document order
+    int changedSections,
+    String removedText,            // Sections of the previous document no longer present
+    int removedSections,
+    int totalSections,
+    String previousPlainSummary,
+    String previousKeyFacts,       // JSON
+    String previousFlaggedTerms,   // JSON
+    String previousTitle,
+    int estimatedTokensSaved
+) {}
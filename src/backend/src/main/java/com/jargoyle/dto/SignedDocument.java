@@ -0,0 +1,15 @@
+package com.jargoyle.dto;
+
+import java.util.UUID;
+
+import com.jargoyle.entity.DocumentType;
+
+/**
+ * Internal projection of a prior document's content signature, used when looking for
+ * near-duplicates of a new upload.
+ */
+public record SignedDocument(
+    UUID id,
+    DocumentType documentType,
+    Long contentSignature
+) {}
@@ -0,0 +1,160 @@
+package com.jargoyle.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Tracks the background removal of a soft-deleted document, or of a whole account when
+ * {@code documentId} is null. Holds plain IDs rather than relationships because the rows
+ * it points at are exactly the ones it's deleting.
+ */
+@Entity
+@Table(name = "deletion_jobs")
+public class DeletionJob {
+    public DeletionJob() { }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    private UUID userId;
+
+    private UUID documentId;
+
+    @Enumerated(EnumType.STRING)
+    private DeletionJobStatus status;
+
+    private Integer documentsTotal;
+
+    private int documentsDeleted;
+
+    private int filesQueued;
+
+    @Column(columnDefinition = "text")
+    private String errorMessage;
+
+    private int attempts;
+
+    private Instant nextAttemptAt;
+
+    @CreationTimestamp
+    private Instant createdAt;
+
+    private Instant heartbeatAt;
+
+    private Instant completedAt;
+
+    public UUID getId() {
+        return id;
+    }
+    // No setter for id.
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public UUID getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(UUID documentId) {
+        this.documentId = documentId;
+    }
+
+    public boolean isAccountDeletion() {
+        return documentId == null;
+    }
+
+    public DeletionJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DeletionJobStatus status) {
+        this.status = status;
+    }
+
+    public Integer getDocumentsTotal() {
+        return documentsTotal;
+    }
+
+    public void setDocumentsTotal(Integer documentsTotal) {
+        this.documentsTotal = documentsTotal;
+    }
+
+    public int getDocumentsDeleted() {
+        return documentsDeleted;
+    }
+
+    public void setDocumentsDeleted(int documentsDeleted) {
+        this.documentsDeleted = documentsDeleted;
+    }
+
+    public int getFilesQueued() {
+        return filesQueued;
+    }
+
+    public void setFilesQueued(int filesQueued) {
+        this.filesQueued = filesQueued;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    // No setter for createdAt.
+
+    public Instant getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(Instant heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.jargoyle.entity;
+
+public enum DeletionJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -4,6 +4,7 @@ import java.time.Instant;
 import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.Column;
@@ -18,8 +19,13 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
+/**
+ * A user's uploaded document. Soft-deleted documents ({@code deletedAt} set) are filtered out of
+ * every query by {@link SQLRestriction} until {@code DeletionWorker} removes the row.
+ */
 @Entity
 @Table(name = "documents")
+@SQLRestriction("deleted_at is null")
 public class Document {
     public Document() { }
 
@@ -46,6 +52,8 @@ public class Document {
     @Column(columnDefinition = "text")
     private String extractedText;
 
+    private Long contentSignature;
+
     @Enumerated(EnumType.STRING)
     private DocumentStatus status;
 
@@ -58,6 +66,8 @@ public class Document {
     @UpdateTimestamp
     private Instant updatedAt;
 
+    private Instant deletedAt;
+
     public UUID getId() {
         return id;
     }
@@ -119,6 +129,11 @@ public class Document {
         this.extractedText = extractedText;
     }
 
+    public Long getContentSignature() {
+        return contentSignature;
+    }
+    // No setter for contentSignature; see DocumentRepository.updateContentSignature.
+
     public DocumentStatus getStatus() {
         return status;
     }
@@ -145,4 +160,9 @@ public class Document {
     }
     // No setter for updatedAt.
 
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+    // No setter for deletedAt; soft deletes go through DocumentRepository.markDeleted.
+
 }
@@ -3,7 +3,8 @@ package com.jargoyle.entity;
 import java.time.Instant;
 import java.util.UUID;
 
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -31,13 +32,18 @@ public class DocumentSummary {
     @Column(columnDefinition = "text")
     private String plainSummary;
 
+    // The casts let the JSON strings be bound as text; PostgreSQL won't take varchar for jsonb.
     @Column(columnDefinition = "jsonb")
+    @ColumnTransformer(write = "?::jsonb")
     private String keyFacts;
 
     @Column(columnDefinition = "jsonb")
+    @ColumnTransformer(write = "?::jsonb")
     private String flaggedTerms;
 
-    @CreationTimestamp
+    // Moves whenever the summary is rewritten, not just when the row is first inserted: the
+    // row is regenerated in place (document_id is unique) and document view ETags depend on it.
+    @UpdateTimestamp
     private Instant generatedAt;
 
     public UUID getId() {
@@ -79,5 +85,6 @@ public class DocumentSummary {
     public Instant getGeneratedAt() {
         return generatedAt;
     }
+    // No setter for generatedAt.
 
 }
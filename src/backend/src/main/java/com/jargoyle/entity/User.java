@@ -34,6 +34,8 @@ public class User {
 
     private Instant lastLoginAt;
 
+    private Instant deletedAt;
+
     public UUID getId() {
         return id;
     }
@@ -74,6 +76,15 @@ public class User {
         this.lastLoginAt = lastLoginAt;
     }
 
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+    // No setter for deletedAt; account deletion goes through UserRepository.markDeleted.
+
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+
     public String getEmail() {
         return email;
     }
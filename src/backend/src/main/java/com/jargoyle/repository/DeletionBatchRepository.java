@@ -0,0 +1,162 @@
+package com.jargoyle.repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based SQL for {@code DeletionWorker}. Goes straight to JDBC because the whole point is to
+ * avoid loading entities: every statement here works on a bounded batch of IDs, so no single
+ * transaction holds locks on more than {@code batchSize} document rows.
+ *
+ * <p>Callers are responsible for the transaction; each method is one step of a batch.
+ */
+@Repository
+public class DeletionBatchRepository {
+
+    public record DocumentRef(UUID id, String storageKey) {}
+
+    public record StoredFileDeletion(UUID id, String storageKey, int attempts) {}
+
+    private final NamedParameterJdbcTemplate _jdbcTemplate;
+
+    public DeletionBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        _jdbcTemplate = jdbcTemplate;
+    }
+
+    public int countUserDocuments(UUID userId) {
+        return _jdbcTemplate.queryForObject(
+            "select count(*) from documents where user_id = :userId",
+            Map.of("userId", userId),
+            Integer.class);
+    }
+
+    /**
+     * Locks the next batch of an account's documents, soft-deleted or not. Rows locked by
+     * another transaction are skipped, so an empty result doesn't mean none are left; check
+     * {@link #countUserDocuments} before treating the account as empty.
+     */
+    public List<DocumentRef> lockUserDocuments(UUID userId, int batchSize) {
+        return _jdbcTemplate.query("""
+                select id, storage_key from documents
+                where user_id = :userId
+                limit :batchSize
+                for update skip locked
+                """,
+            new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("batchSize", batchSize),
+            (rs, rowNum) -> new DocumentRef(rs.getObject("id", UUID.class), rs.getString("storage_key")));
+    }
+
+    /**
+     * Locks a single soft-deleted document, waiting up to {@code lockTimeout} if another
+     * transaction holds it. Empty means the document is already gone. Throws
+     * {@link org.springframework.dao.PessimisticLockingFailureException} if the wait times out.
+     */
+    public List<DocumentRef> lockDeletedDocument(UUID documentId, Duration lockTimeout) {
+        // Unlike a batch, skipping here would be indistinguishable from "already deleted".
+        // SET doesn't take bind parameters; the value is a number we formatted ourselves.
+        _jdbcTemplate.getJdbcOperations().execute("set local lock_timeout = " + lockTimeout.toMillis());
+        return _jdbcTemplate.query("""
+                select id, storage_key from documents
+                where id = :documentId and deleted_at is not null
+                for update
+                """,
+            Map.of("documentId", documentId),
+            (rs, rowNum) -> new DocumentRef(rs.getObject("id", UUID.class), rs.getString("storage_key")));
+    }
+
+    /**
+     * Queues the stored files of a batch for asynchronous removal. Returns the number queued.
+     */
+    public int queueStoredFiles(List<DocumentRef> documents) {
+        var keys = documents.stream()
+            .map(DocumentRef::storageKey)
+            .filter(key -> key != null)
+            .map(key -> new MapSqlParameterSource("storageKey", key))
+            .toArray(MapSqlParameterSource[]::new);
+        if (keys.length == 0) {
+            return 0;
+        }
+
+        _jdbcTemplate.batchUpdate("insert into stored_file_deletions (storage_key) values (:storageKey)", keys);
+        return keys.length;
+    }
+
+    /**
+     * Deletes a batch of documents and everything hanging off them. Dependants are deleted
+     * explicitly first so the cascade on {@code documents} has nothing left to do.
+     */
+    public int deleteDocuments(List<DocumentRef> documents) {
+        var ids = Map.of("ids", documents.stream().map(DocumentRef::id).toList());
+
+        _jdbcTemplate.update("delete from document_summaries where document_id in (:ids)", ids);
+        return _jdbcTemplate.update("delete from documents where id in (:ids)", ids);
+    }
+
+    /**
+     * Deletes the user row, but only once none of their documents are left, so the cascade
+     * never deletes documents whose stored files haven't been queued. Returns whether the user
+     * was deleted.
+     */
+    public boolean deleteUserIfEmpty(UUID userId) {
+        return _jdbcTemplate.update("""
+                delete from users
+                where id = :userId
+                  and not exists (select 1 from documents where user_id = :userId)
+                """,
+            Map.of("userId", userId)) > 0;
+    }
+
+    /**
+     * Claims up to {@code batchSize} stored files that are due for a (re)try. Claiming counts
+     * as an attempt and pushes the next attempt out with exponential backoff, so a crash
+     * mid-delete just means the file is retried later.
+     */
+    public List<StoredFileDeletion> claimStoredFiles(
+            int batchSize,
+            int maxAttempts,
+            long baseDelaySeconds,
+            long maxDelaySeconds) {
+        return _jdbcTemplate.query("""
+                update stored_file_deletions
+                set attempts = attempts + 1,
+                    next_attempt_at = now() + make_interval(secs => least(:baseDelay * power(2, attempts), :maxDelay))
+                where id in (
+                    select id from stored_file_deletions
+                    where next_attempt_at <= now() and attempts < :maxAttempts
+                    order by next_attempt_at
+                    limit :batchSize
+                    for update skip locked
+                )
+                returning id, storage_key, attempts
+                """,
+            new MapSqlParameterSource()
+                .addValue("batchSize", batchSize)
+                .addValue("maxAttempts", maxAttempts)
+                .addValue("baseDelay", baseDelaySeconds)
+                .addValue("maxDelay", maxDelaySeconds),
+            (rs, rowNum) -> new StoredFileDeletion(
+                rs.getObject("id", UUID.class),
+                rs.getString("storage_key"),
+                rs.getInt("attempts")));
+    }
+
+    public void completeStoredFile(UUID id) {
+        _jdbcTemplate.update("delete from stored_file_deletions where id = :id", Map.of("id", id));
+    }
+
+    public void failStoredFile(UUID id, String error) {
+        _jdbcTemplate.update(
+            "update stored_file_deletions set last_error = :error where id = :id",
+            new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("error", error));
+    }
+}
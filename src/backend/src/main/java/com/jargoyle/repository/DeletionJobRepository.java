@@ -0,0 +1,29 @@
+package com.jargoyle.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.jargoyle.entity.DeletionJob;
+
+public interface DeletionJobRepository extends JpaRepository<DeletionJob, UUID> {
+    Optional<DeletionJob> findByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Locks the oldest job that is due to run at {@code now}, or whose worker stopped
+     * heartbeating before {@code staleBefore}. Rows locked by another node are skipped, so each
+     * job has one worker.
+     */
+    @Query(value = """
+        select * from deletion_jobs
+        where (status = 'PENDING' and next_attempt_at <= :now)
+           or (status = 'RUNNING' and heartbeat_at < :staleBefore)
+        order by created_at
+        limit 1
+        for update skip locked
+        """, nativeQuery = true)
+    Optional<DeletionJob> lockNextClaimable(Instant now, Instant staleBefore);
+}
@@ -1,16 +1,78 @@
 package com.jargoyle.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import com.jargoyle.dto.DocumentVersion;
+import com.jargoyle.dto.DocumentView;
+import com.jargoyle.dto.SignedDocument;
 import com.jargoyle.entity.Document;
+import com.jargoyle.entity.DocumentType;
 
 public interface DocumentRepository extends JpaRepository<Document, UUID> {
     Page<Document> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
     Optional<Document> findByIdAndUserId(UUID id, UUID userId);
-    void deleteByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Just the timestamps behind a document view's ETag: a primary key lookup plus the unique
+     * index on {@code document_summaries.document_id}.
+     */
+    @Query("""
+        select new com.jargoyle.dto.DocumentVersion(d.updatedAt, s.generatedAt)
+        from Document d left join DocumentSummary s on s.document = d
+        where d.id = :id and d.user.id = :userId
+        """)
+    Optional<DocumentVersion> findVersionByIdAndUserId(UUID id, UUID userId);
+
+    @Query("""
+        select new com.jargoyle.dto.DocumentView(
+            d.id, d.title, d.documentType, d.inputType, d.originalFilename, d.status, d.errorMessage,
+            d.createdAt, s.id, s.plainSummary, s.keyFacts, s.flaggedTerms)
+        from Document d left join DocumentSummary s on s.document = d
+        where d.id = :id and d.user.id = :userId
+        """)
+    Optional<DocumentView> findViewByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * The user's most recent summarised documents that have a content signature, optionally
+     * restricted to one type. Served by the partial index on signed documents.
+     */
+    @Query("""
+        select new com.jargoyle.dto.SignedDocument(d.id, d.documentType, d.contentSignature)
+        from Document d
+        where d.user.id = :userId
+          and d.id <> :excludeId
+          and d.status = com.jargoyle.entity.DocumentStatus.READY
+          and d.contentSignature is not null
+          and (:documentType is null or d.documentType = :documentType)
+        order by d.createdAt desc
+        """)
+    List<SignedDocument> findSignedDocuments(UUID userId, UUID excludeId, DocumentType documentType, Limit limit);
+
+    // Bulk update so that storing the signature doesn't bump updatedAt (and the ETag with it).
+    // There's deliberately no setter on Document: dirtying a managed entity would get it flushed
+    // before this runs, bumping updatedAt anyway. Loaded entities don't see the new value.
+    @Modifying
+    @Query("update Document d set d.contentSignature = :contentSignature where d.id = :id")
+    void updateContentSignature(UUID id, long contentSignature);
+
+    /**
+     * Soft-deletes a document in a single update. The row and its dependants are removed
+     * later, in batches, by {@code DeletionWorker}. Returns the number of rows marked.
+     */
+    @Modifying
+    @Query("""
+        update Document d set d.deletedAt = :deletedAt
+        where d.id = :id and d.user.id = :userId and d.deletedAt is null
+        """)
+    int markDeleted(UUID id, UUID userId, Instant deletedAt);
 }
@@ -4,10 +4,16 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.jargoyle.entity.DocumentSummary;
 
 public interface DocumentSummaryRepository extends JpaRepository<DocumentSummary, UUID> {
     Optional<DocumentSummary> findByDocumentId(UUID documentId);
+
+    // Bulk delete rather than a derived delete, which would load the entity first.
+    @Modifying
+    @Query("delete from DocumentSummary s where s.document.id = :documentId")
     void deleteByDocumentId(UUID documentId);
 }
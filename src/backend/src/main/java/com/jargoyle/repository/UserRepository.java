@@ -1,12 +1,26 @@
 package com.jargoyle.repository;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.jargoyle.entity.User;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByOauthProviderAndOauthSubject(String oauthProvider, String oauthSubject);
+
+    /**
+     * Soft-deletes an account. Only the user row is touched here; the documents stay as they
+     * are until {@code DeletionWorker} removes them. Document queries filter on
+     * {@code user_id} alone and don't check this flag. What keeps the documents out of reach
+     * is {@code AuthenticatedUserResolver} and {@code CustomOidcUserService} rejecting a
+     * deleted user. Returns the number of rows marked.
+     */
+    @Modifying
+    @Query("update User u set u.deletedAt = :deletedAt where u.id = :id and u.deletedAt is null")
+    int markDeleted(UUID id, Instant deletedAt);
 }
@@ -0,0 +1,225 @@
+package com.jargoyle.service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.jargoyle.dto.CachedAnswer;
+import com.jargoyle.entity.Document;
+import com.jargoyle.entity.DocumentType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-document cache of chat answers, keyed by the embedding of the question that produced them.
+ *
+ * <p>Users ask the same handful of questions about a document over and over ("when is this due?",
+ * "what's the late fee?"). The chat flow already embeds every question for chunk retrieval, so
+ * that embedding is reused here: if a stored question is at least {@code similarity-threshold}
+ * cosine-similar to the new one, the stored answer and its source chunks are returned without
+ * retrieval or an LLM call.
+ *
+ * <p>Entries are stamped with the document's type and {@code updatedAt}. Reprocessing a document
+ * or correcting its type both move that stamp, so stale answers are dropped on the next lookup
+ * without callers having to remember to invalidate. {@link #invalidate(UUID)} is still available
+ * for deletes and other changes that happen outside the entity.
+ *
+ * <p>Size is bounded in two directions: the least recently used documents are evicted once
+ * {@code max-documents} is reached, and each document keeps at most
+ * {@code max-entries-per-document} answers (oldest first out). Answers dropped for size count
+ * as {@code evictions}; answers dropped because their document changed or was deleted count as
+ * {@code invalidations}, whichever call notices it.
+ */
+@Service
+public class AnswerCacheService {
+
+    private final double _similarityThreshold;
+    private final int _maxDocuments;
+    private final int _maxEntriesPerDocument;
+
+    // Access-ordered so iteration order is least recently used first. Guarded by itself.
+    private final LinkedHashMap<UUID, DocumentAnswers> _documents;
+
+    private final Counter _hits;
+    private final Counter _misses;
+    private final Counter _evictions;
+    private final Counter _invalidations;
+
+    public AnswerCacheService(
+            MeterRegistry meterRegistry,
+            @Value("${jargoyle.chat.answer-cache.similarity-threshold:0.95}") double similarityThreshold,
+            @Value("${jargoyle.chat.answer-cache.max-documents:500}") int maxDocuments,
+            @Value("${jargoyle.chat.answer-cache.max-entries-per-document:50}") int maxEntriesPerDocument) {
+        _similarityThreshold = similarityThreshold;
+        _maxDocuments = maxDocuments;
+        _maxEntriesPerDocument = maxEntriesPerDocument;
+
+        _hits = Counter.builder("jargoyle.chat.answer-cache.requests")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        _misses = Counter.builder("jargoyle.chat.answer-cache.requests")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        _evictions = Counter.builder("jargoyle.chat.answer-cache.evictions")
+            .register(meterRegistry);
+        _invalidations = Counter.builder("jargoyle.chat.answer-cache.invalidations")
+            .register(meterRegistry);
+
+        _documents = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, DocumentAnswers> eldest) {
+                if (size() > _maxDocuments) {
+                    _evictions.increment(eldest.getValue().entries.size());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        meterRegistry.gauge("jargoyle.chat.answer-cache.size", this, AnswerCacheService::size);
+    }
+
+    /**
+     * Returns the cached answer for the closest stored question on this document, if one is
+     * at or above the similarity threshold.
+     */
+    public Optional<CachedAnswer> lookup(Document document, float[] questionEmbedding) {
+        var query = normalise(questionEmbedding);
+        var stamp = DocumentStamp.of(document);
+
+        synchronized (_documents) {
+            var answers = _documents.get(document.getId());
+            if (answers == null || !answers.stamp.equals(stamp)) {
+                if (answers != null) {
+                    // Document was reprocessed or reclassified since these were cached.
+                    _documents.remove(document.getId());
+                    _invalidations.increment(answers.entries.size());
+                }
+                _misses.increment();
+                return Optional.empty();
+            }
+
+            Entry best = null;
+            var bestScore = Double.NEGATIVE_INFINITY;
+            for (var entry : answers.entries) {
+                var score = dot(entry.embedding, query);
+                if (score > bestScore) {
+                    best = entry;
+                    bestScore = score;
+                }
+            }
+
+            if (best == null || bestScore < _similarityThreshold) {
+                _misses.increment();
+                return Optional.empty();
+            }
+
+            _hits.increment();
+            return Optional.of(best.answer);
+        }
+    }
+
+    /**
+     * Stores a freshly generated answer against the question embedding that produced it.
+     */
+    public void store(Document document, float[] questionEmbedding, CachedAnswer answer) {
+        var entry = new Entry(normalise(questionEmbedding), new CachedAnswer(
+            answer.content(), List.copyOf(answer.sourceChunks())));
+        var stamp = DocumentStamp.of(document);
+
+        synchronized (_documents) {
+            var answers = _documents.get(document.getId());
+            if (answers == null || !answers.stamp.equals(stamp)) {
+                if (answers != null) {
+                    _invalidations.increment(answers.entries.size());
+                }
+                answers = new DocumentAnswers(stamp);
+                _documents.put(document.getId(), answers);
+            }
+
+            answers.entries.addLast(entry);
+            if (answers.entries.size() > _maxEntriesPerDocument) {
+                answers.entries.removeFirst();
+                _evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached answer for a document.
+     */
+    public void invalidate(UUID documentId) {
+        synchronized (_documents) {
+            var removed = _documents.remove(documentId);
+            if (removed != null) {
+                _invalidations.increment(removed.entries.size());
+            }
+        }
+    }
+
+    /**
+     * Total number of cached answers across all documents.
+     */
+    public int size() {
+        synchronized (_documents) {
+            return _documents.values().stream().mapToInt(answers -> answers.entries.size()).sum();
+        }
+    }
+
+    // Embeddings are normalised on the way in so cosine similarity is a plain dot product.
+    private static float[] normalise(float[] vector) {
+        var sumOfSquares = 0.0;
+        for (var value : vector) {
+            sumOfSquares += value * value;
+        }
+
+        var norm = Math.sqrt(sumOfSquares);
+        var normalised = new float[vector.length];
+        if (norm == 0) {
+            return normalised;
+        }
+        for (var i = 0; i < vector.length; i++) {
+            normalised[i] = (float) (vector[i] / norm);
+        }
+        return normalised;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            // Embedding model changed under us; treat as unrelated.
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        var sum = 0.0;
+        for (var i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private record DocumentStamp(DocumentType documentType, Instant updatedAt) {
+        static DocumentStamp of(Document document) {
+            return new DocumentStamp(document.getDocumentType(), document.getUpdatedAt());
+        }
+    }
+
+    private record Entry(float[] embedding, CachedAnswer answer) {}
+
+    private static final class DocumentAnswers {
+        final DocumentStamp stamp;
+        final Deque<Entry> entries = new ArrayDeque<>();
+
+        DocumentAnswers(DocumentStamp stamp) {
+            this.stamp = stamp;
+        }
+    }
+}
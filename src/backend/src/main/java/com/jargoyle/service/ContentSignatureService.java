@@ -0,0 +1,105 @@
+package com.jargoyle.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Fingerprints extracted document text so recurring documents (this month's phone bill vs last
+ * month's) can be recognised and diffed.
+ *
+ * <p>{@link #signature} is a 64-bit SimHash over three-word shingles. Digits are folded to
+ * {@code 0} and month names to {@code month} first, so two statements that differ only in
+ * amounts and dates hash to nearly the same value; similar texts differ in only a few bits,
+ * compared with {@link Long#bitCount}.
+ *
+ * <p>{@link #sections} splits text on blank lines and hashes each section exactly (digits
+ * included), which is what decides which parts actually changed.
+ */
+@Service
+public class ContentSignatureService {
+
+    public record Section(String text, long hash) {}
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern DIGIT = Pattern.compile("\\p{N}");
+    private static final Pattern SECTION_BREAK = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int SHINGLE_SIZE = 3;
+    // This folds the verb "may" too, which is harmless: it's folded the same way in every text.
+    private static final Set<String> MONTHS = Set.of(
+        "january", "february", "march", "april", "may", "june", "july", "august", "september",
+        "october", "november", "december",
+        "jan", "feb", "mar", "apr", "jun", "jul", "aug", "sep", "sept", "oct", "nov", "dec");
+
+    public long signature(String text) {
+        var words = new ArrayList<String>();
+        var matcher = WORD.matcher(DIGIT.matcher(text.toLowerCase(Locale.ROOT)).replaceAll("0"));
+        while (matcher.find()) {
+            var word = matcher.group();
+            words.add(MONTHS.contains(word) ? "month" : word);
+        }
+
+        // Repeated shingles carry more weight, as in standard weighted SimHash.
+        var shingleCounts = new HashMap<Long, Integer>();
+        if (words.size() < SHINGLE_SIZE) {
+            shingleCounts.put(hash(String.join(" ", words)), 1);
+        } else {
+            for (var i = 0; i <= words.size() - SHINGLE_SIZE; i++) {
+                shingleCounts.merge(hash(String.join(" ", words.subList(i, i + SHINGLE_SIZE))), 1, Integer::sum);
+            }
+        }
+
+        var weights = new long[64];
+        for (var shingle : shingleCounts.entrySet()) {
+            for (var bit = 0; bit < 64; bit++) {
+                weights[bit] += ((shingle.getKey() >>> bit) & 1) == 1 ? shingle.getValue() : -shingle.getValue();
+            }
+        }
+
+        var signature = 0L;
+        for (var bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Number of differing bits between two signatures; 0 is identical, ~32 is unrelated.
+     */
+    public int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    public List<Section> sections(String text) {
+        var sections = new ArrayList<Section>();
+        for (var part : SECTION_BREAK.split(text)) {
+            var normalised = WHITESPACE.matcher(part.strip()).replaceAll(" ");
+            if (!normalised.isEmpty()) {
+                sections.add(new Section(part.strip(), hash(normalised.toLowerCase(Locale.ROOT))));
+            }
+        }
+        return sections;
+    }
+
+    // FNV-1a, then the SplitMix64 finaliser so every output bit depends on every input char;
+    // SimHash needs the bits of each shingle hash to be roughly independent.
+    private static long hash(String value) {
+        var hash = 0xcbf29ce484222325L;
+        for (var i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
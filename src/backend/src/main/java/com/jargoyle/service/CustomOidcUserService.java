@@ -34,7 +34,10 @@ public class CustomOidcUserService extends OidcUserService {
         }
 
         var localUser = _userRepository.findByOauthProviderAndOauthSubject(providerName, subjectName);
-        if (localUser.isPresent()) {
+        if (localUser.isPresent() && localUser.get().isDeleted()) {
+            // The old account is still being removed in the background; it can't be reused.
+            throw new OAuth2AuthenticationException("Account deletion in progress.");
+        } else if (localUser.isPresent()) {
             updateUserLoginTime(localUser);
             
         } else {
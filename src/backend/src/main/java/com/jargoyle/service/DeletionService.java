@@ -0,0 +1,95 @@
+package com.jargoyle.service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.jargoyle.dto.DeletionJobResponse;
+import com.jargoyle.entity.DeletionJob;
+import com.jargoyle.entity.DeletionJobStatus;
+import com.jargoyle.repository.DeletionJobRepository;
+import com.jargoyle.repository.DocumentRepository;
+import com.jargoyle.repository.UserRepository;
+
+/**
+ * Entry point for deleting documents and accounts. Requests only soft-mark the target and
+ * record a {@link DeletionJob}, both single-row writes, so they return immediately no matter
+ * how much data is involved. {@link DeletionWorker} does the actual removal in the background.
+ */
+@Service
+public class DeletionService {
+
+    private final DocumentRepository _documentRepository;
+    private final UserRepository _userRepository;
+    private final DeletionJobRepository _deletionJobRepository;
+    private final AnswerCacheService _answerCacheService;
+
+    public DeletionService(
+            DocumentRepository documentRepository,
+            UserRepository userRepository,
+            DeletionJobRepository deletionJobRepository,
+            AnswerCacheService answerCacheService) {
+        _documentRepository = documentRepository;
+        _userRepository = userRepository;
+        _deletionJobRepository = deletionJobRepository;
+        _answerCacheService = answerCacheService;
+    }
+
+    /**
+     * Soft-deletes one of the user's documents and schedules its removal.
+     * Returns empty if the document doesn't exist, isn't theirs, or is already being deleted.
+     */
+    @Transactional
+    public Optional<DeletionJob> requestDocumentDeletion(UUID documentId, UUID userId) {
+        if (_documentRepository.markDeleted(documentId, userId, Instant.now()) == 0) {
+            return Optional.empty();
+        }
+
+        _answerCacheService.invalidate(documentId);
+        return Optional.of(createJob(userId, documentId));
+    }
+
+    /**
+     * Soft-deletes an account and schedules removal of everything it owns.
+     * Returns empty if the account is already being deleted, e.g. by a concurrent request
+     * that got past {@code AuthenticatedUserResolver} at the same time.
+     */
+    @Transactional
+    public Optional<DeletionJob> requestAccountDeletion(UUID userId) {
+        if (_userRepository.markDeleted(userId, Instant.now()) == 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(createJob(userId, null));
+    }
+
+    public Optional<DeletionJob> findJob(UUID jobId, UUID userId) {
+        return _deletionJobRepository.findByIdAndUserId(jobId, userId);
+    }
+
+    public static DeletionJobResponse toResponse(DeletionJob job) {
+        return new DeletionJobResponse(
+            job.getId(),
+            job.getDocumentId(),
+            job.getStatus().name(),
+            job.getDocumentsTotal(),
+            job.getDocumentsDeleted(),
+            job.getFilesQueued(),
+            job.getErrorMessage(),
+            job.getAttempts(),
+            job.getCreatedAt(),
+            job.getCompletedAt());
+    }
+
+    private DeletionJob createJob(UUID userId, UUID documentId) {
+        var job = new DeletionJob();
+        job.setUserId(userId);
+        job.setDocumentId(documentId);
+        job.setStatus(DeletionJobStatus.PENDING);
+        job.setNextAttemptAt(Instant.now());
+        return _deletionJobRepository.save(job);
+    }
+}
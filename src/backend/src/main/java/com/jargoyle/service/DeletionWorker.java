@@ -0,0 +1,227 @@
+package com.jargoyle.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jargoyle.entity.DeletionJob;
+import com.jargoyle.entity.DeletionJobStatus;
+import com.jargoyle.repository.DeletionBatchRepository;
+import com.jargoyle.repository.DeletionJobRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Background half of {@link DeletionService}. Picks up pending {@link DeletionJob}s and removes
+ * their rows in bounded batches, each in its own short transaction, so deleting an account with
+ * thousands of documents never holds long locks on {@code documents} or its dependants.
+ *
+ * <p>Stored files aren't touched here: their keys are queued in the same transaction that
+ * deletes the row, and {@link StoredFileCleanupService} removes them with retries.
+ *
+ * <p>Jobs are claimed with {@code skip locked} and keep a heartbeat, so several nodes can run
+ * this side by side and a job abandoned by a crashed node is picked up again after
+ * {@code job-lease}.
+ *
+ * <p>Rows another transaction is holding are never treated as already deleted. A
+ * single-document job waits up to {@code lock-timeout} for its row, and an account is only
+ * deleted once none of its documents are left; either way the job is requeued if it has to
+ * wait longer. That doesn't count as a failed attempt.
+ *
+ * <p>A job that throws goes back to {@code PENDING} and is retried with exponential backoff.
+ * Only after {@code max-attempts} is it marked {@code FAILED}, which leaves the target
+ * soft-deleted; that is logged as an error and counted in {@code jargoyle.deletion.jobs}.
+ */
+@Component
+public class DeletionWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(DeletionWorker.class);
+
+    private final DeletionJobRepository _deletionJobRepository;
+    private final DeletionBatchRepository _deletionBatchRepository;
+    private final TransactionTemplate _transactionTemplate;
+    private final int _batchSize;
+    private final Duration _jobLease;
+    private final Duration _lockTimeout;
+    private final int _maxAttempts;
+    private final Duration _retryBaseDelay;
+    private final Duration _retryMaxDelay;
+    private final Counter _documentsDeleted;
+    private final Counter _jobsCompleted;
+    private final Counter _jobsRetried;
+    private final Counter _jobsFailed;
+
+    public DeletionWorker(
+            DeletionJobRepository deletionJobRepository,
+            DeletionBatchRepository deletionBatchRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${jargoyle.deletion.batch-size:200}") int batchSize,
+            @Value("${jargoyle.deletion.job-lease:5m}") Duration jobLease,
+            @Value("${jargoyle.deletion.lock-timeout:2s}") Duration lockTimeout,
+            @Value("${jargoyle.deletion.max-attempts:10}") int maxAttempts,
+            @Value("${jargoyle.deletion.retry-base-delay:30s}") Duration retryBaseDelay,
+            @Value("${jargoyle.deletion.retry-max-delay:1h}") Duration retryMaxDelay) {
+        _deletionJobRepository = deletionJobRepository;
+        _deletionBatchRepository = deletionBatchRepository;
+        _transactionTemplate = transactionTemplate;
+        _batchSize = batchSize;
+        _jobLease = jobLease;
+        _lockTimeout = lockTimeout;
+        _maxAttempts = maxAttempts;
+        _retryBaseDelay = retryBaseDelay;
+        _retryMaxDelay = retryMaxDelay;
+        _documentsDeleted = Counter.builder("jargoyle.deletion.documents.deleted")
+            .register(meterRegistry);
+        _jobsCompleted = Counter.builder("jargoyle.deletion.jobs")
+            .tag("result", "completed")
+            .register(meterRegistry);
+        _jobsRetried = Counter.builder("jargoyle.deletion.jobs")
+            .tag("result", "retried")
+            .register(meterRegistry);
+        _jobsFailed = Counter.builder("jargoyle.deletion.jobs")
+            .tag("result", "failed")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${jargoyle.deletion.poll-interval:5s}")
+    public void processPendingJobs() {
+        DeletionJob job;
+        while ((job = claimNextJob()) != null) {
+            try {
+                run(job);
+            } catch (PessimisticLockingFailureException ex) {
+                log.debug("Deletion job {} is waiting on a locked row, requeueing", job.getId(), ex);
+                requeue(job);
+            } catch (RuntimeException ex) {
+                retryOrFail(job, ex);
+            }
+        }
+    }
+
+    private DeletionJob claimNextJob() {
+        return _transactionTemplate.execute(status -> {
+            var now = Instant.now();
+            var job = _deletionJobRepository.lockNextClaimable(now, now.minus(_jobLease)).orElse(null);
+            if (job == null) {
+                return null;
+            }
+
+            job.setStatus(DeletionJobStatus.RUNNING);
+            job.setHeartbeatAt(now);
+            if (job.isAccountDeletion() && job.getDocumentsTotal() == null) {
+                job.setDocumentsTotal(_deletionBatchRepository.countUserDocuments(job.getUserId()));
+            } else if (!job.isAccountDeletion()) {
+                job.setDocumentsTotal(1);
+            }
+            return _deletionJobRepository.save(job);
+        });
+    }
+
+    private void run(DeletionJob job) {
+        // Each pass deletes one batch and commits, releasing its locks before the next.
+        while (deleteNextBatch(job)) {
+            log.debug("Deletion job {}: {} of {} documents deleted",
+                job.getId(), job.getDocumentsDeleted(), job.getDocumentsTotal());
+        }
+
+        if (job.isAccountDeletion()) {
+            // Documents skipped because they were locked are still there. Deleting the user
+            // now would cascade to them in one transaction and never queue their stored files.
+            var userDeleted = _transactionTemplate.execute(status ->
+                _deletionBatchRepository.deleteUserIfEmpty(job.getUserId()));
+            if (!Boolean.TRUE.equals(userDeleted)
+                    && _deletionBatchRepository.countUserDocuments(job.getUserId()) > 0) {
+                log.debug("Deletion job {}: some documents were locked, requeueing", job.getId());
+                requeue(job);
+                return;
+            }
+        }
+
+        finish(job, DeletionJobStatus.COMPLETED, null);
+        _jobsCompleted.increment();
+        log.info("Deletion job {} completed: {} documents deleted, {} files queued",
+            job.getId(), job.getDocumentsDeleted(), job.getFilesQueued());
+    }
+
+    private boolean deleteNextBatch(DeletionJob job) {
+        var deletedAny = _transactionTemplate.execute(status -> {
+            var batch = job.isAccountDeletion()
+                ? _deletionBatchRepository.lockUserDocuments(job.getUserId(), _batchSize)
+                : _deletionBatchRepository.lockDeletedDocument(job.getDocumentId(), _lockTimeout);
+            if (batch.isEmpty()) {
+                return false;
+            }
+
+            var filesQueued = _deletionBatchRepository.queueStoredFiles(batch);
+            var documentsDeleted = _deletionBatchRepository.deleteDocuments(batch);
+
+            job.setDocumentsDeleted(job.getDocumentsDeleted() + documentsDeleted);
+            job.setFilesQueued(job.getFilesQueued() + filesQueued);
+            job.setHeartbeatAt(Instant.now());
+            _deletionJobRepository.save(job);
+
+            _documentsDeleted.increment(documentsDeleted);
+            return true;
+        });
+
+        // A single-document job is done after its one batch.
+        return Boolean.TRUE.equals(deletedAny) && job.isAccountDeletion();
+    }
+
+    private void requeue(DeletionJob job) {
+        _transactionTemplate.executeWithoutResult(tx -> {
+            job.setStatus(DeletionJobStatus.PENDING);
+            job.setNextAttemptAt(Instant.now().plus(_retryBaseDelay));
+            _deletionJobRepository.save(job);
+        });
+    }
+
+    private void retryOrFail(DeletionJob job, RuntimeException ex) {
+        var attempts = job.getAttempts() + 1;
+        job.setAttempts(attempts);
+
+        if (attempts >= _maxAttempts) {
+            log.error("Deletion job {} failed after {} attempts and will not be retried; user {} "
+                + "and any remaining documents stay soft-deleted until it is resolved",
+                job.getId(), attempts, job.getUserId(), ex);
+            finish(job, DeletionJobStatus.FAILED, ex.getMessage());
+            _jobsFailed.increment();
+            return;
+        }
+
+        var delay = retryDelay(attempts);
+        log.warn("Deletion job {} failed (attempt {} of {}), retrying in {}",
+            job.getId(), attempts, _maxAttempts, delay, ex);
+        _transactionTemplate.executeWithoutResult(tx -> {
+            job.setStatus(DeletionJobStatus.PENDING);
+            job.setErrorMessage(ex.getMessage());
+            job.setNextAttemptAt(Instant.now().plus(delay));
+            _deletionJobRepository.save(job);
+        });
+        _jobsRetried.increment();
+    }
+
+    // Same shape as the stored file backoff: base * 2^(attempts - 1), capped.
+    private Duration retryDelay(int attempts) {
+        var delay = _retryBaseDelay.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(_retryMaxDelay) > 0 ? _retryMaxDelay : delay;
+    }
+
+    private void finish(DeletionJob job, DeletionJobStatus status, String errorMessage) {
+        _transactionTemplate.executeWithoutResult(tx -> {
+            job.setStatus(status);
+            job.setErrorMessage(errorMessage);
+            job.setCompletedAt(Instant.now());
+            _deletionJobRepository.save(job);
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.jargoyle.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.jargoyle.dto.DocumentResponse;
+import com.jargoyle.dto.DocumentSummaryResponse;
+import com.jargoyle.dto.DocumentVersion;
+import com.jargoyle.dto.DocumentView;
+import com.jargoyle.repository.DocumentRepository;
+
+/**
+ * CRUD orchestration for documents. Every lookup is scoped to the owning user, so a document
+ * that belongs to someone else looks exactly like one that doesn't exist.
+ */
+@Service
+public class DocumentService {
+
+    private final DocumentRepository _documentRepository;
+
+    public DocumentService(DocumentRepository documentRepository) {
+        _documentRepository = documentRepository;
+    }
+
+    /**
+     * Returns the timestamps a document view is derived from, for conditional GETs.
+     */
+    @Transactional(readOnly = true)
+    public Optional<DocumentVersion> getVersion(UUID documentId, UUID userId) {
+        return _documentRepository.findVersionByIdAndUserId(documentId, userId);
+    }
+
+    /**
+     * Loads a document with its summary in one query, leaving out the extracted text.
+     */
+    @Transactional(readOnly = true)
+    public Optional<DocumentResponse> getDocument(UUID documentId, UUID userId) {
+        return _documentRepository.findViewByIdAndUserId(documentId, userId).map(DocumentService::toResponse);
+    }
+
+    private static DocumentResponse toResponse(DocumentView view) {
+        var summary = view.summaryId() == null
+            ? null
+            : new DocumentSummaryResponse(view.plainSummary(), view.keyFacts(), view.flaggedTerms());
+
+        return new DocumentResponse(
+            view.id(),
+            view.title(),
+            view.documentType() == null ? null : view.documentType().name(),
+            view.inputType().name(),
+            view.originalFilename(),
+            view.status().name(),
+            view.errorMessage(),
+            summary,
+            view.createdAt());
+    }
+}
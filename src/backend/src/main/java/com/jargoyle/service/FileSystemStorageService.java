@@ -0,0 +1,93 @@
+package com.jargoyle.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link StorageService} on the local filesystem. Files are laid out as
+ * {@code {root}/{userId}/{documentId}/{originalFilename}}, so the document directory provides
+ * uniqueness and cleaning up after a delete is just removing that directory.
+ */
+@Service
+public class FileSystemStorageService implements StorageService {
+
+    private final Path _rootDir;
+
+    public FileSystemStorageService(@Value("${jargoyle.storage.local.root-dir:./data/uploads}") String rootDir) {
+        _rootDir = Path.of(rootDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String store(UUID userId, UUID documentId, String originalFilename, InputStream content) {
+        // Drop any directories, then refuse names that would resolve to one ("." or "..").
+        var name = Path.of(originalFilename).getFileName();
+        var filename = name == null ? "" : name.toString();
+        if (filename.isBlank() || filename.equals(".") || filename.equals("..")) {
+            throw new IllegalArgumentException("Not a usable filename: " + originalFilename);
+        }
+        var relative = Path.of(userId.toString(), documentId.toString(), filename);
+        var target = resolve(relative.toString());
+
+        try {
+            Files.createDirectories(target.getParent());
+            Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store " + relative + ".", ex);
+        }
+
+        return relative.toString();
+    }
+
+    @Override
+    public Resource load(String storageKey) {
+        var path = resolve(storageKey);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("No stored file for key " + storageKey + ".");
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public void delete(String storageKey) {
+        var path = resolve(storageKey);
+
+        try {
+            Files.deleteIfExists(path);
+
+            // Tidy up the now-empty document and user directories, stopping at the first
+            // one that still has something in it.
+            for (var dir = path.getParent(); dir != null && !dir.equals(_rootDir); dir = dir.getParent()) {
+                try {
+                    Files.deleteIfExists(dir);
+                } catch (DirectoryNotEmptyException ex) {
+                    break;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not delete " + storageKey + ".", ex);
+        }
+    }
+
+    private Path resolve(String storageKey) {
+        var path = _rootDir.resolve(storageKey).normalize();
+        if (!path.startsWith(_rootDir)) {
+            throw new IllegalArgumentException("Storage key escapes the storage root: " + storageKey);
+        }
+        // Otherwise delete() would remove the root itself once it's empty.
+        if (path.equals(_rootDir)) {
+            throw new IllegalArgumentException("Storage key resolves to the storage root: " + storageKey);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,261 @@
+package com.jargoyle.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.jargoyle.dto.DocumentSummaryResult;
+import com.jargoyle.dto.IncrementalSummaryPlan;
+import com.jargoyle.dto.SignedDocument;
+import com.jargoyle.entity.Document;
+import com.jargoyle.repository.DocumentRepository;
+import com.jargoyle.repository.DocumentSummaryRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Avoids re-summarising boilerplate when a user uploads the same kind of document every month.
+ *
+ * <p>{@link #plan} signs the new document's text with {@link ContentSignatureService} and looks
+ * for the closest of the user's earlier summarised documents. If one is within
+ * {@code max-distance} bits, the two texts are diffed section by section. The new or changed
+ * sections, and the previous sections they replaced, are handed back for the LLM along with
+ * the previous summary for context. The pipeline then calls {@link #applyDelta}: each key-fact
+ * category the LLM returned replaces the previous one outright, and untouched categories are
+ * carried forward. Merging item by item would keep stale facts whenever the LLM labels them
+ * slightly differently ("Amount due" last month, "Total due" this month).
+ *
+ * <p>Matching is restricted to the new document's type when it has one (e.g. when reprocessing
+ * a corrected document). A fresh upload isn't classified until it's summarised, so it's matched
+ * against all of the user's documents and takes on the type of whichever one it matches.
+ *
+ * <p>Every plan records an estimate of the tokens saved, zero when falling back to a full
+ * summary, in the {@code jargoyle.summary.tokens.saved} distribution.
+ */
+@Service
+public class IncrementalSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalSummaryService.class);
+
+    private final DocumentRepository _documentRepository;
+    private final DocumentSummaryRepository _documentSummaryRepository;
+    private final ContentSignatureService _contentSignatureService;
+    private final JsonMapper _jsonMapper;
+    private final int _maxDistance;
+    private final double _maxChangedFraction;
+    private final int _candidateLimit;
+    private final DistributionSummary _tokensSaved;
+    private final Counter _incrementalUploads;
+    private final Counter _fullUploads;
+
+    public IncrementalSummaryService(
+            DocumentRepository documentRepository,
+            DocumentSummaryRepository documentSummaryRepository,
+            ContentSignatureService contentSignatureService,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${jargoyle.summary.incremental.max-distance:6}") int maxDistance,
+            @Value("${jargoyle.summary.incremental.max-changed-fraction:0.5}") double maxChangedFraction,
+            @Value("${jargoyle.summary.incremental.candidate-limit:20}") int candidateLimit) {
+        _documentRepository = documentRepository;
+        _documentSummaryRepository = documentSummaryRepository;
+        _contentSignatureService = contentSignatureService;
+        _jsonMapper = jsonMapper;
+        _maxDistance = maxDistance;
+        _maxChangedFraction = maxChangedFraction;
+        _candidateLimit = candidateLimit;
+
+        _tokensSaved = DistributionSummary.builder("jargoyle.summary.tokens.saved")
+            .baseUnit("tokens")
+            .register(meterRegistry);
+        _incrementalUploads = Counter.builder("jargoyle.summary.uploads")
+            .tag("mode", "incremental")
+            .register(meterRegistry);
+        _fullUploads = Counter.builder("jargoyle.summary.uploads")
+            .tag("mode", "full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Signs the document and, if it closely matches one the user uploaded before, returns a plan
+     * for summarising only what changed. Empty means the document needs a full summary.
+     *
+     * <p>A plan with no changed or removed sections means the text is effectively identical, and the
+     * previous summary can be reused without calling the LLM at all.
+     */
+    @Transactional
+    public Optional<IncrementalSummaryPlan> plan(Document document) {
+        var text = document.getExtractedText();
+        if (text == null || text.isBlank()) {
+            return full();
+        }
+
+        // Stored with a bulk update; see DocumentRepository.updateContentSignature.
+        var signature = _contentSignatureService.signature(text);
+        _documentRepository.updateContentSignature(document.getId(), signature);
+
+        var match = findClosest(document, signature);
+        if (match.isEmpty()) {
+            return full();
+        }
+
+        var previous = _documentRepository.findById(match.get().id());
+        var previousSummary = _documentSummaryRepository.findByDocumentId(match.get().id());
+        if (previous.isEmpty() || previousSummary.isEmpty() || previous.get().getExtractedText() == null) {
+            return full();
+        }
+
+        var previousSections = _contentSignatureService.sections(previous.get().getExtractedText());
+        var sections = _contentSignatureService.sections(text);
+        var changed = missingFrom(sections, previousSections);
+        var removed = missingFrom(previousSections, sections);
+
+        if (changed.size() > sections.size() * _maxChangedFraction
+                || removed.size() > previousSections.size() * _maxChangedFraction) {
+            return full();
+        }
+
+        var changedText = join(changed);
+        var removedText = join(removed);
+        var summary = previousSummary.get();
+
+        // The removed text and the previous summary go into the prompt as context, so they
+        // count against the saving.
+        var tokensSaved = estimateTokens(text) - estimateTokens(changedText)
+            - estimateTokens(removedText)
+            - estimateTokens(summary.getPlainSummary())
+            - estimateTokens(summary.getKeyFacts())
+            - estimateTokens(summary.getFlaggedTerms());
+        if (tokensSaved <= 0) {
+            return full();
+        }
+
+        _incrementalUploads.increment();
+        _tokensSaved.record(tokensSaved);
+        log.debug("Document {} matches {}: {} of {} sections changed, {} removed, ~{} tokens saved",
+            document.getId(), match.get().id(), changed.size(), sections.size(), removed.size(), tokensSaved);
+
+        return Optional.of(new IncrementalSummaryPlan(
+            match.get().id(),
+            document.getDocumentType() != null ? document.getDocumentType() : match.get().documentType(),
+            changedText,
+            changed.size(),
+            removedText,
+            removed.size(),
+            sections.size(),
+            summary.getPlainSummary(),
+            summary.getKeyFacts(),
+            summary.getFlaggedTerms(),
+            previous.get().getTitle(),
+            tokensSaved));
+    }
+
+    /**
+     * Combines the LLM's summary of the changes with the previous summary. Each key-fact
+     * category present in {@code delta} replaces the previous category, and the rest are carried
+     * forward. Flagged terms are a single list, so any {@code delta} list replaces the previous
+     * one. Null fields in {@code delta} keep the previous value.
+     */
+    public DocumentSummaryResult applyDelta(IncrementalSummaryPlan plan, DocumentSummaryResult delta) {
+        return new DocumentSummaryResult(
+            delta.plainSummary() != null ? delta.plainSummary() : plan.previousPlainSummary(),
+            mergeKeyFacts(plan.previousKeyFacts(), delta.keyFacts()),
+            mergeFlaggedTerms(plan.previousFlaggedTerms(), delta.flaggedTerms()),
+            delta.title() != null ? delta.title() : plan.previousTitle(),
+            delta.documentType() != null ? delta.documentType() : previousType(plan));
+    }
+
+    private static String previousType(IncrementalSummaryPlan plan) {
+        return plan.documentType() == null ? null : plan.documentType().name();
+    }
+
+    // Sections of "from" whose exact hash doesn't appear in "in", in document order.
+    private static List<ContentSignatureService.Section> missingFrom(
+            List<ContentSignatureService.Section> from,
+            List<ContentSignatureService.Section> in) {
+        var hashes = in.stream()
+            .map(ContentSignatureService.Section::hash)
+            .collect(Collectors.toSet());
+        return from.stream()
+            .filter(section -> !hashes.contains(section.hash()))
+            .toList();
+    }
+
+    private static String join(List<ContentSignatureService.Section> sections) {
+        return sections.stream()
+            .map(ContentSignatureService.Section::text)
+            .collect(Collectors.joining("\n\n"));
+    }
+
+    private Optional<SignedDocument> findClosest(Document document, long signature) {
+        var candidates = _documentRepository.findSignedDocuments(
+            document.getUser().getId(), document.getId(), document.getDocumentType(), Limit.of(_candidateLimit));
+
+        // Candidates come newest first and min() keeps the first of equals, so ties go to
+        // the most recent upload.
+        return candidates.stream()
+            .filter(candidate -> distance(candidate, signature) <= _maxDistance)
+            .min(Comparator.comparingInt(candidate -> distance(candidate, signature)));
+    }
+
+    private int distance(SignedDocument candidate, long signature) {
+        return _contentSignatureService.distance(candidate.contentSignature(), signature);
+    }
+
+    private Optional<IncrementalSummaryPlan> full() {
+        _fullUploads.increment();
+        _tokensSaved.record(0);
+        return Optional.empty();
+    }
+
+    // Roughly four characters per token for English text. Only used for the savings metric
+    // and the worth-it check, so an estimate is fine.
+    private static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+
+    private String mergeKeyFacts(String previousJson, String deltaJson) {
+        if (isBlank(deltaJson)) {
+            return previousJson;
+        }
+        if (isBlank(previousJson)) {
+            return deltaJson;
+        }
+
+        try {
+            var previous = _jsonMapper.readTree(previousJson);
+            var delta = _jsonMapper.readTree(deltaJson);
+            if (!previous.isObject() || !delta.isObject()) {
+                return deltaJson;
+            }
+
+            var merged = (ObjectNode) previous.deepCopy();
+            merged.setAll((ObjectNode) delta);
+            return _jsonMapper.writeValueAsString(merged);
+        } catch (RuntimeException ex) {
+            // The LLM's JSON didn't parse; its answer is newer, so prefer it as-is.
+            log.warn("Could not merge key facts, using the new value unmerged", ex);
+            return deltaJson;
+        }
+    }
+
+    private static String mergeFlaggedTerms(String previousJson, String deltaJson) {
+        return isBlank(deltaJson) ? previousJson : deltaJson;
+    }
+
+    private static boolean isBlank(String json) {
+        return json == null || json.isBlank();
+    }
+}
@@ -0,0 +1,30 @@
+package com.jargoyle.service;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Storage for original uploaded files. Documents only hold the storage key; how and where the
+ * bytes live is up to the implementation.
+ */
+public interface StorageService {
+
+    /**
+     * Stores a file and returns the storage key (path relative to the storage root).
+     * The implementation decides the directory structure and filename.
+     */
+    String store(UUID userId, UUID documentId, String originalFilename, InputStream content);
+
+    /**
+     * Loads a stored file as a Resource. Throws if not found.
+     */
+    Resource load(String storageKey);
+
+    /**
+     * Deletes a stored file. No-op if the file doesn't exist. Throws if the file exists
+     * but can't be removed, so callers can retry.
+     */
+    void delete(String storageKey);
+}
@@ -0,0 +1,83 @@
+package com.jargoyle.service;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.jargoyle.repository.DeletionBatchRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Removes stored files queued by {@link DeletionWorker}. File deletes happen outside any
+ * database transaction and are retried with exponential backoff, so a slow or unavailable
+ * storage backend never holds up row deletion. Files still failing after {@code max-attempts}
+ * stay in {@code stored_file_deletions} with their last error for someone to look at.
+ */
+@Service
+public class StoredFileCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StoredFileCleanupService.class);
+
+    private final DeletionBatchRepository _deletionBatchRepository;
+    private final StorageService _storageService;
+    private final int _batchSize;
+    private final int _maxAttempts;
+    private final Duration _retryBaseDelay;
+    private final Duration _retryMaxDelay;
+    private final Counter _deleted;
+    private final Counter _failed;
+
+    public StoredFileCleanupService(
+            DeletionBatchRepository deletionBatchRepository,
+            StorageService storageService,
+            MeterRegistry meterRegistry,
+            @Value("${jargoyle.storage.cleanup.batch-size:100}") int batchSize,
+            @Value("${jargoyle.storage.cleanup.max-attempts:10}") int maxAttempts,
+            @Value("${jargoyle.storage.cleanup.retry-base-delay:30s}") Duration retryBaseDelay,
+            @Value("${jargoyle.storage.cleanup.retry-max-delay:6h}") Duration retryMaxDelay) {
+        _deletionBatchRepository = deletionBatchRepository;
+        _storageService = storageService;
+        _batchSize = batchSize;
+        _maxAttempts = maxAttempts;
+        _retryBaseDelay = retryBaseDelay;
+        _retryMaxDelay = retryMaxDelay;
+        _deleted = Counter.builder("jargoyle.deletion.files")
+            .tag("result", "deleted")
+            .register(meterRegistry);
+        _failed = Counter.builder("jargoyle.deletion.files")
+            .tag("result", "failed")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${jargoyle.storage.cleanup.poll-interval:30s}")
+    public void deleteQueuedFiles() {
+        // Claiming is its own statement, so nothing is locked while files are being deleted.
+        var claimed = _deletionBatchRepository.claimStoredFiles(
+            _batchSize, _maxAttempts, _retryBaseDelay.toSeconds(), _retryMaxDelay.toSeconds());
+
+        for (var file : claimed) {
+            try {
+                _storageService.delete(file.storageKey());
+                _deletionBatchRepository.completeStoredFile(file.id());
+                _deleted.increment();
+            } catch (RuntimeException ex) {
+                _deletionBatchRepository.failStoredFile(file.id(), ex.getMessage());
+                _failed.increment();
+
+                if (file.attempts() >= _maxAttempts) {
+                    log.error("Giving up on deleting stored file {} after {} attempts",
+                        file.storageKey(), file.attempts(), ex);
+                } else {
+                    log.warn("Could not delete stored file {} (attempt {}), will retry",
+                        file.storageKey(), file.attempts(), ex);
+                }
+            }
+        }
+    }
+}
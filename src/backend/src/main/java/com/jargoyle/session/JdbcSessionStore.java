@@ -0,0 +1,116 @@
+package com.jargoyle.session;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link SessionStore} backed by the {@code http_sessions} table in the application database.
+ *
+ * <p>Plain {@link JdbcTemplate} rather than JPA: sessions are read and written on almost every
+ * request, and there's nothing here that benefits from entity state tracking.
+ */
+public class JdbcSessionStore implements SessionStore {
+
+    private final JdbcTemplate _jdbcTemplate;
+
+    public JdbcSessionStore(JdbcTemplate jdbcTemplate) {
+        _jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<StoredSession> findById(String id) {
+        var sessions = _jdbcTemplate.query("""
+                select id, attributes, version, created_at, last_accessed_at, max_inactive_seconds
+                from http_sessions
+                where id = ?
+                """,
+            (rs, rowNum) -> new StoredSession(
+                rs.getString("id"),
+                rs.getBytes("attributes"),
+                rs.getLong("version"),
+                rs.getTimestamp("created_at").toInstant(),
+                rs.getTimestamp("last_accessed_at").toInstant(),
+                Duration.ofSeconds(rs.getInt("max_inactive_seconds"))),
+            id);
+
+        return sessions.stream().findFirst();
+    }
+
+    @Override
+    public void insert(StoredSession session) {
+        _jdbcTemplate.update("""
+                insert into http_sessions
+                    (id, attributes, version, created_at, last_accessed_at, max_inactive_seconds, expires_at)
+                values (?, ?, ?, ?, ?, ?, ?)
+                """,
+            session.id(),
+            session.attributes(),
+            session.version(),
+            Timestamp.from(session.creationTime()),
+            Timestamp.from(session.lastAccessedTime()),
+            (int) session.maxInactiveInterval().toSeconds(),
+            Timestamp.from(session.expiresAt()));
+    }
+
+    @Override
+    public boolean update(StoredSession session, long expectedVersion) {
+        return _jdbcTemplate.update("""
+                update http_sessions
+                set attributes = ?, version = ?, last_accessed_at = ?, max_inactive_seconds = ?, expires_at = ?
+                where id = ? and version = ?
+                """,
+            session.attributes(),
+            session.version(),
+            Timestamp.from(session.lastAccessedTime()),
+            (int) session.maxInactiveInterval().toSeconds(),
+            Timestamp.from(session.expiresAt()),
+            session.id(),
+            expectedVersion) > 0;
+    }
+
+    @Override
+    public boolean touch(String id, Instant lastAccessedTime, Duration maxInactiveInterval) {
+        var expiresAt = new StoredSession(id, null, 0, null, lastAccessedTime, maxInactiveInterval).expiresAt();
+
+        return _jdbcTemplate.update("""
+                update http_sessions
+                set last_accessed_at = ?, max_inactive_seconds = ?, expires_at = ?
+                where id = ?
+                """,
+            Timestamp.from(lastAccessedTime),
+            (int) maxInactiveInterval.toSeconds(),
+            Timestamp.from(expiresAt),
+            id) > 0;
+    }
+
+    @Override
+    public boolean changeId(String oldId, String newId) {
+        return _jdbcTemplate.update("update http_sessions set id = ? where id = ?", newId, oldId) > 0;
+    }
+
+    @Override
+    public void delete(String id) {
+        _jdbcTemplate.update("delete from http_sessions where id = ?", id);
+    }
+
+    @Override
+    public int deleteExpired(Instant now, int limit) {
+        // Postgres has no "delete ... limit", so pick the batch in a subquery. Skip rows another
+        // node is already sweeping rather than waiting on them.
+        return _jdbcTemplate.update("""
+                delete from http_sessions
+                where id in (
+                    select id from http_sessions
+                    where expires_at < ?
+                    limit ?
+                    for update skip locked
+                )
+                """,
+            Timestamp.from(now),
+            limit);
+    }
+}
@@ -0,0 +1,387 @@
+package com.jargoyle.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Compact binary format for a {@link SecurityContext} holding an OIDC login, i.e. a
+ * {@link SecurityContextImpl} wrapping an {@link OAuth2AuthenticationToken} whose principal
+ * is the {@link DefaultOidcUser} produced by
+ * {@link com.jargoyle.service.CustomOidcUserService CustomOidcUserService}.
+ *
+ * <p>Only the data needed to rebuild the graph is written: the registration ID, the ID token
+ * and user info claims, the authority names and the request details. Any authority or details
+ * type that isn't recognised is Java-serialized inline, so unusual contexts still round-trip.
+ * Contexts that don't match the expected shape at all are rejected by {@link #tryEncode} and
+ * left to the caller's fallback.
+ */
+class OidcSecurityContextCodec {
+
+    private static final byte AUTHORITY_OIDC_USER = 1;
+    private static final byte AUTHORITY_SIMPLE = 2;
+    private static final byte AUTHORITY_JAVA = 3;
+
+    private static final byte DETAILS_NONE = 0;
+    private static final byte DETAILS_WEB = 1;
+    private static final byte DETAILS_JAVA = 2;
+
+    private static final byte CLAIM_NULL = 0;
+    private static final byte CLAIM_STRING = 1;
+    private static final byte CLAIM_BOOLEAN = 2;
+    private static final byte CLAIM_INT = 3;
+    private static final byte CLAIM_LONG = 4;
+    private static final byte CLAIM_DOUBLE = 5;
+    private static final byte CLAIM_INSTANT = 6;
+    private static final byte CLAIM_URL = 7;
+    private static final byte CLAIM_LIST = 8;
+    private static final byte CLAIM_MAP = 9;
+
+    private final DefaultSerializer _javaSerializer;
+    private final DefaultDeserializer _javaDeserializer;
+
+    OidcSecurityContextCodec(DefaultSerializer javaSerializer, DefaultDeserializer javaDeserializer) {
+        _javaSerializer = javaSerializer;
+        _javaDeserializer = javaDeserializer;
+    }
+
+    /**
+     * Encodes the context, or returns {@code null} if it isn't an OIDC login this codec can
+     * rebuild exactly.
+     */
+    byte[] tryEncode(SecurityContext context) {
+        if (context.getClass() != SecurityContextImpl.class
+                || !(context.getAuthentication() instanceof OAuth2AuthenticationToken token)
+                || token.getClass() != OAuth2AuthenticationToken.class
+                || token.getPrincipal().getClass() != DefaultOidcUser.class) {
+            return null;
+        }
+
+        var principal = (DefaultOidcUser) token.getPrincipal();
+        // DefaultOidcUser doesn't expose its name attribute key. Google (and OidcUserService's
+        // default) use "sub"; anything else goes to the fallback rather than being guessed.
+        if (!principal.getName().equals(principal.getIdToken().getSubject())) {
+            return null;
+        }
+
+        try {
+            var bytes = new ByteArrayOutputStream();
+            var out = new DataOutputStream(bytes);
+
+            writeString(out, token.getAuthorizedClientRegistrationId());
+            writeToken(out, principal.getIdToken());
+            writeUserInfo(out, principal.getUserInfo());
+            writeAuthorities(out, principal, principal.getAuthorities());
+            writeAuthorities(out, principal, token.getAuthorities());
+            writeDetails(out, token.getDetails());
+
+            out.flush();
+            return bytes.toByteArray();
+        } catch (UnsupportedValueException ex) {
+            return null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    SecurityContext decode(byte[] payload) {
+        try {
+            var in = new DataInputStream(new ByteArrayInputStream(payload));
+
+            var registrationId = readString(in);
+            var idToken = readToken(in);
+            var userInfo = readUserInfo(in);
+            var principalAuthorities = readAuthorities(in, idToken, userInfo);
+            var tokenAuthorities = readAuthorities(in, idToken, userInfo);
+            var details = readDetails(in);
+
+            var principal = new DefaultOidcUser(principalAuthorities, idToken, userInfo, IdTokenClaimNames.SUB);
+            var token = new OAuth2AuthenticationToken(principal, tokenAuthorities, registrationId);
+            token.setDetails(details);
+            return new SecurityContextImpl(token);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // --- Strings ---
+    // DataOutputStream.writeUTF caps out at 64 KB, which an ID token can get close to.
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+
+    // --- Tokens ---
+
+    private void writeToken(DataOutputStream out, OidcIdToken idToken) throws IOException {
+        writeString(out, idToken.getTokenValue());
+        writeInstant(out, idToken.getIssuedAt());
+        writeInstant(out, idToken.getExpiresAt());
+        writeClaims(out, idToken.getClaims());
+    }
+
+    private OidcIdToken readToken(DataInputStream in) throws IOException {
+        var tokenValue = readString(in);
+        var issuedAt = readInstant(in);
+        var expiresAt = readInstant(in);
+        return new OidcIdToken(tokenValue, issuedAt, expiresAt, readClaims(in));
+    }
+
+    private void writeUserInfo(DataOutputStream out, OidcUserInfo userInfo) throws IOException {
+        out.writeBoolean(userInfo != null);
+        if (userInfo != null) {
+            writeClaims(out, userInfo.getClaims());
+        }
+    }
+
+    private OidcUserInfo readUserInfo(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new OidcUserInfo(readClaims(in)) : null;
+    }
+
+    // --- Authorities ---
+
+    private void writeAuthorities(
+            DataOutputStream out,
+            DefaultOidcUser principal,
+            Collection<? extends GrantedAuthority> authorities) throws IOException {
+        out.writeInt(authorities.size());
+        for (var authority : authorities) {
+            if (authority.getClass() == OidcUserAuthority.class && belongsTo((OidcUserAuthority) authority, principal)) {
+                out.writeByte(AUTHORITY_OIDC_USER);
+                writeString(out, authority.getAuthority());
+            } else if (authority.getClass() == SimpleGrantedAuthority.class) {
+                out.writeByte(AUTHORITY_SIMPLE);
+                writeString(out, authority.getAuthority());
+            } else {
+                out.writeByte(AUTHORITY_JAVA);
+                writeJava(out, authority);
+            }
+        }
+    }
+
+    private List<GrantedAuthority> readAuthorities(
+            DataInputStream in,
+            OidcIdToken idToken,
+            OidcUserInfo userInfo) throws IOException {
+        var count = in.readInt();
+        var authorities = new ArrayList<GrantedAuthority>(count);
+        for (var i = 0; i < count; i++) {
+            var kind = in.readByte();
+            authorities.add(switch (kind) {
+                case AUTHORITY_OIDC_USER -> new OidcUserAuthority(readString(in), idToken, userInfo);
+                case AUTHORITY_SIMPLE -> new SimpleGrantedAuthority(readString(in));
+                case AUTHORITY_JAVA -> (GrantedAuthority) readJava(in);
+                default -> throw new IllegalStateException("Unknown authority kind " + kind + ".");
+            });
+        }
+        return authorities;
+    }
+
+    // An OidcUserAuthority is only rebuilt from the principal's own token and user info,
+    // so check that's what it was built from in the first place.
+    private static boolean belongsTo(OidcUserAuthority authority, DefaultOidcUser principal) {
+        var sameToken = authority.getIdToken().getTokenValue().equals(principal.getIdToken().getTokenValue());
+        var sameUserInfo = authority.getUserInfo() == null
+            ? principal.getUserInfo() == null
+            : principal.getUserInfo() != null
+                && authority.getUserInfo().getClaims().equals(principal.getUserInfo().getClaims());
+        return sameToken && sameUserInfo;
+    }
+
+    // --- Details ---
+
+    private void writeDetails(DataOutputStream out, Object details) throws IOException {
+        if (details == null) {
+            out.writeByte(DETAILS_NONE);
+        } else if (details.getClass() == WebAuthenticationDetails.class) {
+            var webDetails = (WebAuthenticationDetails) details;
+            out.writeByte(DETAILS_WEB);
+            writeNullableString(out, webDetails.getRemoteAddress());
+            writeNullableString(out, webDetails.getSessionId());
+        } else {
+            out.writeByte(DETAILS_JAVA);
+            writeJava(out, details);
+        }
+    }
+
+    private Object readDetails(DataInputStream in) throws IOException {
+        var kind = in.readByte();
+        return switch (kind) {
+            case DETAILS_NONE -> null;
+            case DETAILS_WEB -> new WebAuthenticationDetails(readNullableString(in), readNullableString(in));
+            case DETAILS_JAVA -> readJava(in);
+            default -> throw new IllegalStateException("Unknown details kind " + kind + ".");
+        };
+    }
+
+    // --- Claims ---
+
+    private void writeClaims(DataOutputStream out, Map<String, Object> claims) throws IOException {
+        out.writeInt(claims.size());
+        for (var claim : claims.entrySet()) {
+            writeString(out, claim.getKey());
+            writeClaimValue(out, claim.getValue());
+        }
+    }
+
+    private Map<String, Object> readClaims(DataInputStream in) throws IOException {
+        var count = in.readInt();
+        var claims = new LinkedHashMap<String, Object>(count);
+        for (var i = 0; i < count; i++) {
+            var name = readString(in);
+            claims.put(name, readClaimValue(in));
+        }
+        return claims;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeClaimValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(CLAIM_NULL);
+            case String string -> {
+                out.writeByte(CLAIM_STRING);
+                writeString(out, string);
+            }
+            case Boolean bool -> {
+                out.writeByte(CLAIM_BOOLEAN);
+                out.writeBoolean(bool);
+            }
+            case Integer integer -> {
+                out.writeByte(CLAIM_INT);
+                out.writeInt(integer);
+            }
+            case Long number -> {
+                out.writeByte(CLAIM_LONG);
+                out.writeLong(number);
+            }
+            case Double number -> {
+                out.writeByte(CLAIM_DOUBLE);
+                out.writeDouble(number);
+            }
+            case Instant instant -> {
+                out.writeByte(CLAIM_INSTANT);
+                writeInstant(out, instant);
+            }
+            case URL url -> {
+                out.writeByte(CLAIM_URL);
+                writeString(out, url.toExternalForm());
+            }
+            case List<?> list -> {
+                out.writeByte(CLAIM_LIST);
+                out.writeInt(list.size());
+                for (var item : list) {
+                    writeClaimValue(out, item);
+                }
+            }
+            case Map<?, ?> map when map.keySet().stream().allMatch(String.class::isInstance) -> {
+                out.writeByte(CLAIM_MAP);
+                writeClaims(out, (Map<String, Object>) map);
+            }
+            default -> throw new UnsupportedValueException();
+        }
+    }
+
+    private Object readClaimValue(DataInputStream in) throws IOException {
+        var tag = in.readByte();
+        return switch (tag) {
+            case CLAIM_NULL -> null;
+            case CLAIM_STRING -> readString(in);
+            case CLAIM_BOOLEAN -> in.readBoolean();
+            case CLAIM_INT -> in.readInt();
+            case CLAIM_LONG -> in.readLong();
+            case CLAIM_DOUBLE -> in.readDouble();
+            case CLAIM_INSTANT -> readInstant(in);
+            case CLAIM_URL -> URI.create(readString(in)).toURL();
+            case CLAIM_LIST -> {
+                var size = in.readInt();
+                var list = new ArrayList<Object>(size);
+                for (var i = 0; i < size; i++) {
+                    list.add(readClaimValue(in));
+                }
+                yield list;
+            }
+            case CLAIM_MAP -> readClaims(in);
+            default -> throw new IllegalStateException("Unknown claim tag " + tag + ".");
+        };
+    }
+
+    // --- Primitives ---
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeString(out, value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readString(in) : null;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeBoolean(instant != null);
+        if (instant != null) {
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        }
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+
+    private void writeJava(DataOutputStream out, Object value) throws IOException {
+        if (!(value instanceof Serializable)) {
+            throw new UnsupportedValueException();
+        }
+
+        var bytes = new ByteArrayOutputStream();
+        _javaSerializer.serialize(value, bytes);
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    private Object readJava(DataInputStream in) throws IOException {
+        var bytes = in.readNBytes(in.readInt());
+        return _javaDeserializer.deserialize(new ByteArrayInputStream(bytes));
+    }
+
+    private static class UnsupportedValueException extends RuntimeException {
+        UnsupportedValueException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.jargoyle.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.security.core.context.SecurityContext;
+
+/**
+ * Encodes session attributes into the byte payload stored by a {@link SessionStore}.
+ *
+ * <p>The attribute that lives for the whole session is the Spring Security context holding the
+ * OIDC login, and it's read on every request. Java serialization of that object graph is large
+ * and slow to decode, so it gets a compact hand-written format via {@link OidcSecurityContextCodec}.
+ * Strings are written directly. Anything else (CSRF tokens, saved requests and OAuth2
+ * authorisation requests during login) is short-lived, so it falls back to Java serialization
+ * rather than maintaining a format for every Spring Security type.
+ *
+ * <p>Output is deterministic for a given set of attributes, which lets the repository compare
+ * payloads byte-for-byte to decide whether a write is needed.
+ */
+public class SessionAttributeCodec {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_OIDC_SECURITY_CONTEXT = 2;
+    private static final byte TAG_JAVA = 3;
+
+    private final DefaultSerializer _javaSerializer;
+    private final DefaultDeserializer _javaDeserializer;
+    private final OidcSecurityContextCodec _oidcCodec;
+
+    public SessionAttributeCodec(ClassLoader classLoader) {
+        _javaSerializer = new DefaultSerializer();
+        _javaDeserializer = new DefaultDeserializer(classLoader);
+        _oidcCodec = new OidcSecurityContextCodec(_javaSerializer, _javaDeserializer);
+    }
+
+    public byte[] encode(Map<String, Object> attributes) {
+        try {
+            var bytes = new ByteArrayOutputStream();
+            var out = new DataOutputStream(bytes);
+
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(attributes.size());
+            for (var attribute : attributes.entrySet()) {
+                out.writeUTF(attribute.getKey());
+                writeValue(out, attribute.getValue());
+            }
+
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public Map<String, Object> decode(byte[] payload) {
+        try {
+            var in = new DataInputStream(new ByteArrayInputStream(payload));
+
+            var version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported session format version " + version + ".");
+            }
+
+            var count = in.readInt();
+            var attributes = new LinkedHashMap<String, Object>(count);
+            for (var i = 0; i < count; i++) {
+                var name = in.readUTF();
+                attributes.put(name, readValue(in));
+            }
+            return attributes;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String string) {
+            out.writeByte(TAG_STRING);
+            OidcSecurityContextCodec.writeString(out, string);
+            return;
+        }
+
+        if (value instanceof SecurityContext context) {
+            var encoded = _oidcCodec.tryEncode(context);
+            if (encoded != null) {
+                out.writeByte(TAG_OIDC_SECURITY_CONTEXT);
+                out.writeInt(encoded.length);
+                out.write(encoded);
+                return;
+            }
+        }
+
+        var bytes = new ByteArrayOutputStream();
+        _javaSerializer.serialize(value, bytes);
+        out.writeByte(TAG_JAVA);
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        var tag = in.readByte();
+        return switch (tag) {
+            case TAG_STRING -> OidcSecurityContextCodec.readString(in);
+            case TAG_OIDC_SECURITY_CONTEXT -> _oidcCodec.decode(in.readNBytes(in.readInt()));
+            case TAG_JAVA -> _javaDeserializer.deserialize(new ByteArrayInputStream(in.readNBytes(in.readInt())));
+            default -> throw new IllegalStateException("Unknown session attribute tag " + tag + ".");
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.jargoyle.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Backing store for {@link SharedSessionRepository}. Implementations hold sessions somewhere
+ * every node can reach; caching, change tracking and expiry policy all live in the repository,
+ * so a store only needs to read and write rows.
+ *
+ * <p>The update methods return {@code false} when the session no longer exists (e.g. it was
+ * invalidated on another node), letting the caller drop any local copy.
+ */
+public interface SessionStore {
+
+    Optional<StoredSession> findById(String id);
+
+    void insert(StoredSession session);
+
+    /**
+     * Rewrites the attributes and access metadata of an existing session, and sets its version
+     * to {@code session.version()}, but only if the stored version is still
+     * {@code expectedVersion}. Returns {@code false} if the session is gone or was written by
+     * someone else in the meantime; the caller re-reads to tell which.
+     */
+    boolean update(StoredSession session, long expectedVersion);
+
+    /**
+     * Updates only the access metadata, leaving the attribute payload untouched.
+     */
+    boolean touch(String id, Instant lastAccessedTime, Duration maxInactiveInterval);
+
+    boolean changeId(String oldId, String newId);
+
+    void delete(String id);
+
+    /**
+     * Deletes up to {@code limit} sessions that expired before {@code now}.
+     * Returns the number of sessions removed.
+     */
+    int deleteExpired(Instant now, int limit);
+}
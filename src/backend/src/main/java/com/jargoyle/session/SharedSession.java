@@ -0,0 +1,194 @@
+package com.jargoyle.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.session.Session;
+
+/**
+ * Working copy of a session for the duration of one request. Remembers what was last persisted
+ * so {@link SharedSessionRepository} can tell whether anything actually needs writing, and which
+ * attributes this request changed so they can be re-applied to a newer copy after a conflict.
+ */
+public class SharedSession implements Session {
+
+    private String _id;
+    private final Instant _creationTime;
+    private Instant _lastAccessedTime;
+    private Duration _maxInactiveInterval;
+    private final Map<String, Object> _attributes;
+
+    // Persisted state; _persistedId is null until the session has been inserted.
+    private String _persistedId;
+    private byte[] _persistedAttributes;
+    private long _persistedVersion;
+    private Instant _persistedLastAccessedTime;
+    private Duration _persistedMaxInactiveInterval;
+
+    // Names set or removed since the last persist.
+    private final Set<String> _changedAttributeNames = new LinkedHashSet<>();
+
+    SharedSession(Duration maxInactiveInterval) {
+        _id = newId();
+        _creationTime = Instant.now();
+        _lastAccessedTime = _creationTime;
+        _maxInactiveInterval = maxInactiveInterval;
+        _attributes = new LinkedHashMap<>();
+    }
+
+    SharedSession(StoredSession stored, Map<String, Object> attributes) {
+        _id = stored.id();
+        _creationTime = stored.creationTime();
+        _lastAccessedTime = stored.lastAccessedTime();
+        _maxInactiveInterval = stored.maxInactiveInterval();
+        _attributes = new LinkedHashMap<>(attributes);
+        markPersisted(stored);
+    }
+
+    @Override
+    public String getId() {
+        return _id;
+    }
+
+    @Override
+    public String changeSessionId() {
+        _id = newId();
+        return _id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String attributeName) {
+        return (T) _attributes.get(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        return Set.copyOf(_attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        if (attributeValue == null) {
+            removeAttribute(attributeName);
+            return;
+        }
+        _attributes.put(attributeName, attributeValue);
+        _changedAttributeNames.add(attributeName);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        if (_attributes.remove(attributeName) != null) {
+            _changedAttributeNames.add(attributeName);
+        }
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return _creationTime;
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        _lastAccessedTime = lastAccessedTime;
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return _lastAccessedTime;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        _maxInactiveInterval = interval;
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return _maxInactiveInterval;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return toStored(null, 0).isExpired(Instant.now());
+    }
+
+    // --- Change tracking, used by SharedSessionRepository ---
+
+    boolean isNew() {
+        return _persistedId == null;
+    }
+
+    String getPersistedId() {
+        return _persistedId;
+    }
+
+    boolean isIdChanged() {
+        return !isNew() && !_persistedId.equals(_id);
+    }
+
+    boolean isAttributesChanged() {
+        return !_changedAttributeNames.isEmpty();
+    }
+
+    boolean isMaxInactiveIntervalChanged() {
+        return !_maxInactiveInterval.equals(_persistedMaxInactiveInterval);
+    }
+
+    Map<String, Object> getAttributes() {
+        return _attributes;
+    }
+
+    byte[] getPersistedAttributes() {
+        return _persistedAttributes;
+    }
+
+    long getPersistedVersion() {
+        return _persistedVersion;
+    }
+
+    /**
+     * Replaces the attributes with {@code current}, read from the store after a conflicting
+     * write, then re-applies only the attributes this request set or removed.
+     */
+    void rebase(Map<String, Object> current) {
+        var rebased = new LinkedHashMap<>(current);
+        for (var name : _changedAttributeNames) {
+            var value = _attributes.get(name);
+            if (value == null) {
+                rebased.remove(name);
+            } else {
+                rebased.put(name, value);
+            }
+        }
+        _attributes.clear();
+        _attributes.putAll(rebased);
+    }
+
+    Instant getPersistedLastAccessedTime() {
+        return _persistedLastAccessedTime;
+    }
+
+    StoredSession toStored(byte[] attributes, long version) {
+        return new StoredSession(_id, attributes, version, _creationTime, _lastAccessedTime, _maxInactiveInterval);
+    }
+
+    void markPersisted(StoredSession stored) {
+        _persistedId = stored.id();
+        _persistedAttributes = stored.attributes();
+        _persistedVersion = stored.version();
+        _persistedLastAccessedTime = stored.lastAccessedTime();
+        _persistedMaxInactiveInterval = stored.maxInactiveInterval();
+        _changedAttributeNames.clear();
+    }
+
+    private static String newId() {
+        return UUID.randomUUID().toString();
+    }
+}
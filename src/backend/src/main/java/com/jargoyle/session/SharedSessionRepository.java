@@ -0,0 +1,231 @@
+package com.jargoyle.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.session.SessionRepository;
+
+/**
+ * Spring Session repository that keeps sessions in a shared {@link SessionStore} so any node can
+ * serve any request, without paying for a store round trip and a write on every request.
+ *
+ * <ul>
+ *   <li><b>Near-cache</b> — recently read sessions are kept locally for {@code near-cache-ttl}.
+ *       A session invalidated on another node can therefore outlive its logout here by up to
+ *       that long, so keep the TTL short.</li>
+ *   <li><b>Writes only on change</b> — attributes are re-encoded only after a
+ *       {@code setAttribute}/{@code removeAttribute}, and written only if the bytes differ from
+ *       what was loaded. The last-accessed time is written at most once per
+ *       {@code touch-interval}, which means a session may expire up to that much early.</li>
+ *   <li><b>Optimistic writes</b> — an attribute write only applies if the stored version is
+ *       the one this copy was read at. A near-cached copy can be stale, so on a conflict the
+ *       session is re-read and only the attributes this request changed are re-applied, rather
+ *       than overwriting what another node wrote (e.g. the security context at login).</li>
+ *   <li><b>Lazy expiry</b> — expired sessions are treated as missing when read, and a bounded
+ *       batch of expired rows is swept at most once per {@code sweep-interval}, piggybacked on
+ *       a normal save instead of a scheduled job.</li>
+ * </ul>
+ */
+public class SharedSessionRepository implements SessionRepository<SharedSession> {
+
+    // Each conflict means another writer succeeded, so this is only reached under sustained
+    // contention on a single session.
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final SessionStore _store;
+    private final SessionAttributeCodec _codec;
+    private final Duration _defaultMaxInactiveInterval;
+    private final Duration _nearCacheTtl;
+    private final Duration _touchInterval;
+    private final Duration _sweepInterval;
+    private final int _sweepBatchSize;
+
+    // Access-ordered LRU of persisted snapshots. Guarded by itself.
+    private final LinkedHashMap<String, CachedSession> _nearCache;
+
+    private final AtomicReference<Instant> _lastSweep = new AtomicReference<>(Instant.EPOCH);
+
+    public SharedSessionRepository(
+            SessionStore store,
+            SessionAttributeCodec codec,
+            Duration defaultMaxInactiveInterval,
+            int nearCacheSize,
+            Duration nearCacheTtl,
+            Duration touchInterval,
+            Duration sweepInterval,
+            int sweepBatchSize) {
+        _store = store;
+        _codec = codec;
+        _defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        _nearCacheTtl = nearCacheTtl;
+        _touchInterval = touchInterval;
+        _sweepInterval = sweepInterval;
+        _sweepBatchSize = sweepBatchSize;
+
+        _nearCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSession> eldest) {
+                return size() > nearCacheSize;
+            }
+        };
+    }
+
+    @Override
+    public SharedSession createSession() {
+        return new SharedSession(_defaultMaxInactiveInterval);
+    }
+
+    @Override
+    public void save(SharedSession session) {
+        var now = Instant.now();
+        sweepIfDue(now);
+
+        if (session.isNew()) {
+            var stored = session.toStored(_codec.encode(session.getAttributes()), 0);
+            _store.insert(stored);
+            persisted(session, stored, now);
+            return;
+        }
+
+        if (session.isIdChanged()) {
+            evict(session.getPersistedId());
+            if (!_store.changeId(session.getPersistedId(), session.getId())) {
+                // Invalidated elsewhere mid-request; don't resurrect it.
+                return;
+            }
+        }
+
+        var attributes = session.getPersistedAttributes();
+        if (session.isAttributesChanged()) {
+            var encoded = _codec.encode(session.getAttributes());
+            if (!Arrays.equals(encoded, attributes)) {
+                attributes = encoded;
+            }
+        }
+
+        StoredSession stored;
+        if (attributes != session.getPersistedAttributes()) {
+            stored = writeAttributes(session, attributes);
+        } else if (session.isIdChanged() || session.isMaxInactiveIntervalChanged() || isTouchDue(session)) {
+            // A changed ID also lands here so the near-cache entry moves to the new ID.
+            stored = session.toStored(attributes, session.getPersistedVersion());
+            if (!_store.touch(session.getId(), stored.lastAccessedTime(), stored.maxInactiveInterval())) {
+                stored = null;
+            }
+        } else {
+            return;
+        }
+
+        if (stored != null) {
+            persisted(session, stored, now);
+        } else {
+            evict(session.getId());
+        }
+    }
+
+    @Override
+    public SharedSession findById(String id) {
+        var now = Instant.now();
+
+        var stored = fromNearCache(id, now);
+        if (stored == null) {
+            stored = _store.findById(id).orElse(null);
+            if (stored == null) {
+                return null;
+            }
+            cache(stored, now);
+        }
+
+        if (stored.isExpired(now)) {
+            deleteById(id);
+            return null;
+        }
+
+        return new SharedSession(stored, _codec.decode(stored.attributes()));
+    }
+
+    @Override
+    public void deleteById(String id) {
+        evict(id);
+        _store.delete(id);
+    }
+
+    /**
+     * Writes the attributes if nobody else has since this copy was read. On a conflict, re-reads
+     * the session, re-applies this request's changes on top and tries again. Returns what was
+     * written, or null if the session no longer exists.
+     */
+    private StoredSession writeAttributes(SharedSession session, byte[] attributes) {
+        var version = session.getPersistedVersion();
+        for (var attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            var stored = session.toStored(attributes, version + 1);
+            if (_store.update(stored, version)) {
+                return stored;
+            }
+
+            evict(session.getId());
+            var current = _store.findById(session.getId()).orElse(null);
+            if (current == null) {
+                return null;
+            }
+            session.rebase(_codec.decode(current.attributes()));
+            attributes = _codec.encode(session.getAttributes());
+            version = current.version();
+        }
+        throw new IllegalStateException(
+            "Session was modified concurrently " + MAX_WRITE_ATTEMPTS + " times in a row; giving up");
+    }
+
+    private boolean isTouchDue(SharedSession session) {
+        var sincePersisted = Duration.between(session.getPersistedLastAccessedTime(), session.getLastAccessedTime());
+        return sincePersisted.compareTo(_touchInterval) >= 0;
+    }
+
+    private void sweepIfDue(Instant now) {
+        var lastSweep = _lastSweep.get();
+        if (now.isBefore(lastSweep.plus(_sweepInterval))) {
+            return;
+        }
+        // Only the thread that wins the race sweeps; everyone else carries on.
+        if (_lastSweep.compareAndSet(lastSweep, now)) {
+            _store.deleteExpired(now, _sweepBatchSize);
+        }
+    }
+
+    private void persisted(SharedSession session, StoredSession stored, Instant now) {
+        session.markPersisted(stored);
+        cache(stored, now);
+    }
+
+    private StoredSession fromNearCache(String id, Instant now) {
+        synchronized (_nearCache) {
+            var cached = _nearCache.get(id);
+            if (cached == null) {
+                return null;
+            }
+            if (now.isAfter(cached.cachedAt.plus(_nearCacheTtl))) {
+                _nearCache.remove(id);
+                return null;
+            }
+            return cached.session;
+        }
+    }
+
+    private void cache(StoredSession stored, Instant now) {
+        synchronized (_nearCache) {
+            _nearCache.put(stored.id(), new CachedSession(stored, now));
+        }
+    }
+
+    private void evict(String id) {
+        synchronized (_nearCache) {
+            _nearCache.remove(id);
+        }
+    }
+
+    private record CachedSession(StoredSession session, Instant cachedAt) {}
+}
@@ -0,0 +1,29 @@
+package com.jargoyle.session;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A session as persisted by a {@link SessionStore}. Attributes are already encoded by
+ * {@link SessionAttributeCodec}, so stores only ever move bytes around. {@code version} counts
+ * attribute writes and is what {@link SessionStore#update} checks.
+ */
+public record StoredSession(
+    String id,
+    byte[] attributes,
+    long version,
+    Instant creationTime,
+    Instant lastAccessedTime,
+    Duration maxInactiveInterval
+) {
+    // A negative interval means the session never expires (servlet convention).
+    private static final Instant NEVER = Instant.parse("9999-12-31T00:00:00Z");
+
+    public Instant expiresAt() {
+        return maxInactiveInterval.isNegative() ? NEVER : lastAccessedTime.plus(maxInactiveInterval);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt());
+    }
+}
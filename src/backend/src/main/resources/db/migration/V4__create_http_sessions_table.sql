@@ -0,0 +1,12 @@
+create table http_sessions (
+    id varchar(64) primary key,
+    attributes bytea not null,
+    -- Bumped on every attribute write; writers check it so a stale copy can't overwrite a newer one.
+    version bigint not null default 0,
+    created_at timestamp with time zone not null,
+    last_accessed_at timestamp with time zone not null,
+    max_inactive_seconds integer not null,
+    expires_at timestamp with time zone not null
+);
+
+create index idx_http_sessions_expires_at on http_sessions(expires_at);
@@ -0,0 +1,33 @@
+alter table users add column deleted_at timestamp with time zone;
+alter table documents add column deleted_at timestamp with time zone;
+
+-- No foreign key on user_id: the job outlives the user row it deletes.
+create table deletion_jobs (
+    id uuid primary key,
+    user_id uuid not null,
+    document_id uuid,
+    status varchar(20) not null default 'PENDING',
+    documents_total integer,
+    documents_deleted integer not null default 0,
+    files_queued integer not null default 0,
+    error_message text,
+    attempts integer not null default 0,
+    next_attempt_at timestamp with time zone not null default now(),
+    created_at timestamp with time zone not null default now(),
+    heartbeat_at timestamp with time zone,
+    completed_at timestamp with time zone
+);
+
+create index idx_deletion_jobs_status_next_attempt_at on deletion_jobs(status, next_attempt_at);
+create index idx_deletion_jobs_user_id on deletion_jobs(user_id);
+
+create table stored_file_deletions (
+    id uuid primary key default gen_random_uuid(),
+    storage_key varchar(500) not null,
+    attempts integer not null default 0,
+    next_attempt_at timestamp with time zone not null default now(),
+    last_error text,
+    created_at timestamp with time zone not null default now()
+);
+
+create index idx_stored_file_deletions_next_attempt_at on stored_file_deletions(next_attempt_at);
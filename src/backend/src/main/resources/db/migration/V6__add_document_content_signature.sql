@@ -0,0 +1,6 @@
+-- 64-bit SimHash of the extracted text, for spotting near-duplicate uploads.
+alter table documents add column content_signature bigint;
+
+create index idx_documents_user_id_document_type_signed
+    on documents(user_id, document_type, created_at desc)
+    where content_signature is not null;
@@ -0,0 +1,94 @@
+package com.jargoyle.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.jargoyle.entity.DeletionJob;
+import com.jargoyle.entity.User;
+import com.jargoyle.service.DeletionService;
+
+@WebMvcTest(
+    controllers = AuthController.class,
+    properties = {
+        "spring.security.oauth2.client.registration.google.client-id=test",
+        "spring.security.oauth2.client.registration.google.client-secret=test"
+    })
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc _mockMvc;
+
+    @MockitoBean
+    private AuthenticatedUserResolver _authenticatedUserResolver;
+
+    @MockitoBean
+    private DeletionService _deletionService;
+
+    private User _user;
+
+    @BeforeEach
+    void setUp() {
+        _user = new User();
+        ReflectionTestUtils.setField(_user, "id", UUID.randomUUID());
+        when(_authenticatedUserResolver.resolve(any(), any())).thenReturn(_user);
+    }
+
+    @Test
+    void deleteAccountReturnsAcceptedAndInvalidatesTheSession() throws Exception {
+        when(_deletionService.requestAccountDeletion(_user.getId())).thenReturn(Optional.of(new DeletionJob()));
+        var session = new MockHttpSession();
+
+        _mockMvc.perform(delete("/api/auth/me").session(session).with(oidcLogin()).with(csrf()))
+            .andExpect(status().isAccepted())
+            .andExpect(content().string(""));
+
+        verify(_deletionService).requestAccountDeletion(_user.getId());
+        assertThat(session.isInvalid()).isTrue();
+    }
+
+    @Test
+    void deleteAccountAlreadyUnderwayIsStillAccepted() throws Exception {
+        when(_deletionService.requestAccountDeletion(_user.getId())).thenReturn(Optional.empty());
+        var session = new MockHttpSession();
+
+        _mockMvc.perform(delete("/api/auth/me").session(session).with(oidcLogin()).with(csrf()))
+            .andExpect(status().isAccepted());
+
+        assertThat(session.isInvalid()).isTrue();
+    }
+
+    @Test
+    void deleteAccountOfDeletedUserIsUnauthorized() throws Exception {
+        when(_authenticatedUserResolver.resolve(any(), any()))
+            .thenThrow(new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+        var session = new MockHttpSession();
+
+        _mockMvc.perform(delete("/api/auth/me").session(session).with(oidcLogin()).with(csrf()))
+            .andExpect(status().isUnauthorized());
+
+        verify(_deletionService, never()).requestAccountDeletion(any());
+        assertThat(session.isInvalid()).isFalse();
+    }
+}
@@ -0,0 +1,237 @@
+package com.jargoyle.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jargoyle.dto.DocumentResponse;
+import com.jargoyle.dto.DocumentSummaryResponse;
+import com.jargoyle.dto.DocumentVersion;
+import com.jargoyle.entity.DeletionJob;
+import com.jargoyle.entity.DeletionJobStatus;
+import com.jargoyle.entity.User;
+import com.jargoyle.service.DeletionService;
+import com.jargoyle.service.DocumentService;
+
+@WebMvcTest(
+    controllers = DocumentController.class,
+    properties = {
+        "spring.security.oauth2.client.registration.google.client-id=test",
+        "spring.security.oauth2.client.registration.google.client-secret=test"
+    })
+class DocumentControllerTests {
+
+    private static final Instant UPDATED_AT = Instant.parse("2026-04-01T10:15:30.123456Z");
+    private static final Instant GENERATED_AT = Instant.parse("2026-04-01T10:16:02.654321Z");
+
+    @Autowired
+    private MockMvc _mockMvc;
+
+    @MockitoBean
+    private AuthenticatedUserResolver _authenticatedUserResolver;
+
+    @MockitoBean
+    private DocumentService _documentService;
+
+    @MockitoBean
+    private DeletionService _deletionService;
+
+    private final UUID _documentId = UUID.randomUUID();
+    private User _user;
+
+    @BeforeEach
+    void setUp() {
+        _user = user();
+        when(_authenticatedUserResolver.resolve(any(), any())).thenReturn(_user);
+        when(_documentService.getDocument(_documentId, _user.getId())).thenReturn(Optional.of(response()));
+    }
+
+    @Test
+    void returnsDocumentWithWeakETagAndRevalidateHeaders() throws Exception {
+        givenVersion(UPDATED_AT, GENERATED_AT);
+
+        _mockMvc.perform(get("/api/documents/{id}", _documentId).with(oidcLogin()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, etag(UPDATED_AT, GENERATED_AT)))
+            .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, GENERATED_AT.toEpochMilli() / 1000 * 1000))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andExpect(jsonPath("$.id").value(_documentId.toString()))
+            .andExpect(jsonPath("$.summary.plainSummary").value("Your April power bill."));
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModifiedWithoutLoadingTheDocument() throws Exception {
+        givenVersion(UPDATED_AT, GENERATED_AT);
+
+        _mockMvc.perform(get("/api/documents/{id}", _documentId)
+                .header(HttpHeaders.IF_NONE_MATCH, etag(UPDATED_AT, GENERATED_AT))
+                .with(oidcLogin()))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag(UPDATED_AT, GENERATED_AT)))
+            .andExpect(content().string(""));
+
+        verify(_documentService, never()).getDocument(any(), any());
+    }
+
+    @Test
+    void reprocessedDocumentGetsNewETag() throws Exception {
+        var reprocessedAt = UPDATED_AT.plusSeconds(60);
+        givenVersion(reprocessedAt, GENERATED_AT);
+
+        var etag = _mockMvc.perform(get("/api/documents/{id}", _documentId)
+                .header(HttpHeaders.IF_NONE_MATCH, etag(UPDATED_AT, GENERATED_AT))
+                .with(oidcLogin()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).isEqualTo(etag(reprocessedAt, GENERATED_AT)).isNotEqualTo(etag(UPDATED_AT, GENERATED_AT));
+    }
+
+    @Test
+    void regeneratedSummaryGetsNewETag() throws Exception {
+        var regeneratedAt = GENERATED_AT.plusSeconds(60);
+        givenVersion(UPDATED_AT, regeneratedAt);
+
+        _mockMvc.perform(get("/api/documents/{id}", _documentId)
+                .header(HttpHeaders.IF_NONE_MATCH, etag(UPDATED_AT, GENERATED_AT))
+                .with(oidcLogin()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, etag(UPDATED_AT, regeneratedAt)));
+    }
+
+    @Test
+    void documentWithoutSummaryHasItsOwnETag() throws Exception {
+        givenVersion(UPDATED_AT, null);
+
+        _mockMvc.perform(get("/api/documents/{id}", _documentId).with(oidcLogin()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, etag(UPDATED_AT, null)));
+    }
+
+    @Test
+    void anotherUsersDocumentIsNotFound() throws Exception {
+        var owner = user();
+        when(_documentService.getVersion(_documentId, owner.getId()))
+            .thenReturn(Optional.of(new DocumentVersion(UPDATED_AT, GENERATED_AT)));
+
+        _mockMvc.perform(get("/api/documents/{id}", _documentId)
+                .header(HttpHeaders.IF_NONE_MATCH, etag(UPDATED_AT, GENERATED_AT))
+                .with(oidcLogin()))
+            .andExpect(status().isNotFound())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        verify(_documentService).getVersion(_documentId, _user.getId());
+        verify(_documentService, never()).getDocument(any(), any());
+    }
+
+    @Test
+    void keyFactsAndFlaggedTermsAreEmbeddedAsJson() throws Exception {
+        givenVersion(UPDATED_AT, GENERATED_AT);
+
+        _mockMvc.perform(get("/api/documents/{id}", _documentId).with(oidcLogin()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.summary.keyFacts").isMap())
+            .andExpect(jsonPath("$.summary.keyFacts.amounts[0].label").value("Total due"))
+            .andExpect(jsonPath("$.summary.keyFacts.amounts[0].value").value("$167.95"))
+            .andExpect(jsonPath("$.summary.flaggedTerms").isArray())
+            .andExpect(jsonPath("$.summary.flaggedTerms[0].term").value("fixed charge"));
+    }
+
+    @Test
+    void deleteReturnsAcceptedWithTheJob() throws Exception {
+        var jobId = UUID.randomUUID();
+        when(_deletionService.requestDocumentDeletion(_documentId, _user.getId()))
+            .thenReturn(Optional.of(job(jobId)));
+
+        _mockMvc.perform(delete("/api/documents/{id}", _documentId).with(oidcLogin()).with(csrf()))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id").value(jobId.toString()))
+            .andExpect(jsonPath("$.documentId").value(_documentId.toString()))
+            .andExpect(jsonPath("$.status").value("PENDING"))
+            .andExpect(jsonPath("$.documentsDeleted").value(0))
+            .andExpect(jsonPath("$.attempts").value(0));
+    }
+
+    // Covers another user's document and one that's already being deleted: markDeleted
+    // matches neither, so the service returns empty.
+    @Test
+    void deleteOfUnknownDocumentIsNotFound() throws Exception {
+        when(_deletionService.requestDocumentDeletion(_documentId, _user.getId())).thenReturn(Optional.empty());
+
+        _mockMvc.perform(delete("/api/documents/{id}", _documentId).with(oidcLogin()).with(csrf()))
+            .andExpect(status().isNotFound())
+            .andExpect(content().string(""));
+    }
+
+    private void givenVersion(Instant updatedAt, Instant generatedAt) {
+        when(_documentService.getVersion(_documentId, _user.getId()))
+            .thenReturn(Optional.of(new DocumentVersion(updatedAt, generatedAt)));
+    }
+
+    private DocumentResponse response() {
+        return new DocumentResponse(
+            _documentId,
+            "April power bill",
+            "BILL",
+            "PDF",
+            "bill.pdf",
+            "READY",
+            null,
+            new DocumentSummaryResponse(
+                "Your April power bill.",
+                "{\"amounts\": [{\"label\": \"Total due\", \"value\": \"$167.95\"}]}",
+                "[{\"term\": \"fixed charge\", \"definition\": \"Charged every day.\"}]"),
+            UPDATED_AT);
+    }
+
+    private DeletionJob job(UUID jobId) {
+        var job = new DeletionJob();
+        ReflectionTestUtils.setField(job, "id", jobId);
+        job.setUserId(_user.getId());
+        job.setDocumentId(_documentId);
+        job.setStatus(DeletionJobStatus.PENDING);
+        job.setNextAttemptAt(UPDATED_AT);
+        return job;
+    }
+
+    private static User user() {
+        var user = new User();
+        ReflectionTestUtils.setField(user, "id", UUID.randomUUID());
+        return user;
+    }
+
+    // Same format as DocumentController: microseconds since the epoch, in hex.
+    private static String etag(Instant updatedAt, Instant generatedAt) {
+        return "W/\"" + micros(updatedAt) + "-" + micros(generatedAt) + "\"";
+    }
+
+    private static String micros(Instant instant) {
+        if (instant == null) {
+            return "0";
+        }
+        return Long.toHexString(instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000);
+    }
+}
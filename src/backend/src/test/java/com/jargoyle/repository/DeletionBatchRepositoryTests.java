@@ -0,0 +1,170 @@
+package com.jargoyle.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import com.jargoyle.repository.DeletionBatchRepository.DocumentRef;
+
+@Import(DeletionBatchRepository.class)
+class DeletionBatchRepositoryTests extends PostgresRepositoryTests {
+
+    private static final Duration LOCK_TIMEOUT = Duration.ofSeconds(2);
+    private static final long BASE_DELAY_SECONDS = 30;
+    private static final long MAX_DELAY_SECONDS = 3600;
+
+    @Autowired
+    private DeletionBatchRepository _deletionBatchRepository;
+
+    @Test
+    void lockUserDocumentsReturnsOnlyThatUsersDocumentsUpToBatchSize() {
+        var userId = insertUser();
+        var otherDocumentId = insertDocument(insertUser(), "other");
+        insertDocument(userId, "a");
+        insertDocument(userId, "b");
+        softDeleteDocument(insertDocument(userId, "c"));
+
+        var firstBatch = _deletionBatchRepository.lockUserDocuments(userId, 2);
+        var everything = _deletionBatchRepository.lockUserDocuments(userId, 10);
+
+        assertThat(firstBatch).hasSize(2);
+        assertThat(everything).extracting(DocumentRef::storageKey).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(everything).extracting(DocumentRef::id).doesNotContain(otherDocumentId);
+    }
+
+    @Test
+    void lockDeletedDocumentIgnoresLiveDocument() {
+        var documentId = insertDocument(insertUser(), "key");
+
+        assertThat(_deletionBatchRepository.lockDeletedDocument(documentId, LOCK_TIMEOUT)).isEmpty();
+
+        softDeleteDocument(documentId);
+        assertThat(_deletionBatchRepository.lockDeletedDocument(documentId, LOCK_TIMEOUT))
+            .containsExactly(new DocumentRef(documentId, "key"));
+    }
+
+    @Test
+    void queueStoredFilesSkipsDocumentsWithoutAFile() {
+        var queued = _deletionBatchRepository.queueStoredFiles(List.of(
+            new DocumentRef(UUID.randomUUID(), "user/doc/bill.pdf"),
+            new DocumentRef(UUID.randomUUID(), null)));
+
+        assertThat(queued).isEqualTo(1);
+        assertThat(_jdbcTemplate.queryForList("select storage_key from stored_file_deletions", String.class))
+            .containsExactly("user/doc/bill.pdf");
+    }
+
+    @Test
+    void deleteDocumentsRemovesOnlyTheBatchAndItsSummaries() {
+        var userId = insertUser();
+        var deleted = insertDocument(userId, "a");
+        var kept = insertDocument(userId, "b");
+        insertSummary(deleted);
+        insertSummary(kept);
+
+        var count = _deletionBatchRepository.deleteDocuments(List.of(new DocumentRef(deleted, "a")));
+
+        assertThat(count).isEqualTo(1);
+        assertThat(_jdbcTemplate.queryForList("select id from documents", UUID.class)).containsExactly(kept);
+        assertThat(_jdbcTemplate.queryForList("select document_id from document_summaries", UUID.class))
+            .containsExactly(kept);
+    }
+
+    @Test
+    void deleteUserIfEmptyWaitsForDocumentsToGo() {
+        var userId = insertUser();
+        var documentId = insertDocument(userId, "a");
+
+        assertThat(_deletionBatchRepository.deleteUserIfEmpty(userId)).isFalse();
+        assertThat(count("documents")).isEqualTo(1);
+
+        _deletionBatchRepository.deleteDocuments(List.of(new DocumentRef(documentId, "a")));
+
+        assertThat(_deletionBatchRepository.deleteUserIfEmpty(userId)).isTrue();
+        assertThat(count("users")).isZero();
+    }
+
+    @Test
+    void claimStoredFilesBacksOffExponentially() {
+        var id = insertStoredFile(0);
+
+        var first = _deletionBatchRepository.claimStoredFiles(10, 10, BASE_DELAY_SECONDS, MAX_DELAY_SECONDS);
+        assertThat(first).extracting(DeletionBatchRepository.StoredFileDeletion::attempts).containsExactly(1);
+        // now() is fixed for the transaction, so the delay can be checked exactly.
+        assertThat(secondsUntilNextAttempt(id)).isEqualTo(30);
+
+        assertThat(_deletionBatchRepository.claimStoredFiles(10, 10, BASE_DELAY_SECONDS, MAX_DELAY_SECONDS))
+            .as("not due again yet")
+            .isEmpty();
+
+        makeDue(id);
+        _deletionBatchRepository.claimStoredFiles(10, 10, BASE_DELAY_SECONDS, MAX_DELAY_SECONDS);
+        assertThat(secondsUntilNextAttempt(id)).isEqualTo(60);
+    }
+
+    @Test
+    void claimStoredFilesCapsTheDelay() {
+        var id = insertStoredFile(8);
+
+        _deletionBatchRepository.claimStoredFiles(10, 20, BASE_DELAY_SECONDS, MAX_DELAY_SECONDS);
+
+        assertThat(secondsUntilNextAttempt(id)).isEqualTo(MAX_DELAY_SECONDS);
+    }
+
+    @Test
+    void claimStoredFilesStopsAtMaxAttempts() {
+        insertStoredFile(10);
+
+        assertThat(_deletionBatchRepository.claimStoredFiles(10, 10, BASE_DELAY_SECONDS, MAX_DELAY_SECONDS)).isEmpty();
+    }
+
+    @Test
+    void claimStoredFilesHonoursBatchSize() {
+        insertStoredFile(0);
+        insertStoredFile(0);
+        insertStoredFile(0);
+
+        assertThat(_deletionBatchRepository.claimStoredFiles(2, 10, BASE_DELAY_SECONDS, MAX_DELAY_SECONDS)).hasSize(2);
+    }
+
+    @Test
+    void completeAndFailStoredFile() {
+        var completed = insertStoredFile(1);
+        var failed = insertStoredFile(1);
+
+        _deletionBatchRepository.completeStoredFile(completed);
+        _deletionBatchRepository.failStoredFile(failed, "disk on fire");
+
+        assertThat(_jdbcTemplate.queryForList("select id from stored_file_deletions", UUID.class))
+            .containsExactly(failed);
+        assertThat(_jdbcTemplate.queryForObject(
+            "select last_error from stored_file_deletions where id = ?", String.class, failed))
+            .isEqualTo("disk on fire");
+    }
+
+    private UUID insertStoredFile(int attempts) {
+        return _jdbcTemplate.queryForObject("""
+                insert into stored_file_deletions (storage_key, attempts)
+                values ('user/doc/bill.pdf', ?)
+                returning id
+                """,
+            UUID.class, attempts);
+    }
+
+    private void makeDue(UUID id) {
+        _jdbcTemplate.update(
+            "update stored_file_deletions set next_attempt_at = now() - interval '1 second' where id = ?", id);
+    }
+
+    private long secondsUntilNextAttempt(UUID id) {
+        return _jdbcTemplate.queryForObject(
+            "select extract(epoch from next_attempt_at - now())::bigint from stored_file_deletions where id = ?",
+            Long.class, id);
+    }
+}
@@ -0,0 +1,148 @@
+package com.jargoyle.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jargoyle.entity.DeletionJob;
+import com.jargoyle.entity.DeletionJobStatus;
+
+class DeletionJobRepositoryTests extends PostgresRepositoryTests {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private DeletionJobRepository _deletionJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager _transactionManager;
+
+    private final Instant _now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    @Test
+    void claimsOldestDuePendingJob() {
+        var userId = UUID.randomUUID();
+        var older = insertJob(userId, DeletionJobStatus.PENDING, _now.minusSeconds(20), _now.minusSeconds(60), null);
+        insertJob(userId, DeletionJobStatus.PENDING, _now.minusSeconds(10), _now.minusSeconds(60), null);
+
+        assertThat(claim()).isEqualTo(older);
+    }
+
+    @Test
+    void skipsPendingJobWaitingForRetry() {
+        insertJob(UUID.randomUUID(), DeletionJobStatus.PENDING, _now.minusSeconds(10), _now.plusSeconds(30), null);
+
+        assertThat(claim()).isNull();
+    }
+
+    @Test
+    void reclaimsRunningJobOnlyOnceItsLeaseHasLapsed() {
+        var userId = UUID.randomUUID();
+        insertJob(userId, DeletionJobStatus.RUNNING, _now.minusSeconds(20), _now.minusSeconds(60), _now.minusSeconds(10));
+        var stale = insertJob(userId, DeletionJobStatus.RUNNING, _now.minusSeconds(10), _now.minusSeconds(60),
+            _now.minus(LEASE).minusSeconds(1));
+
+        assertThat(claim()).isEqualTo(stale);
+    }
+
+    @Test
+    void ignoresFinishedJobs() {
+        var userId = UUID.randomUUID();
+        insertJob(userId, DeletionJobStatus.COMPLETED, _now.minusSeconds(20), _now.minusSeconds(60), null);
+        insertJob(userId, DeletionJobStatus.FAILED, _now.minusSeconds(10), _now.minusSeconds(60), null);
+
+        assertThat(claim()).isNull();
+    }
+
+    @Test
+    void findByIdAndUserIdIsScopedToTheUser() {
+        var userId = UUID.randomUUID();
+        var jobId = insertJob(userId, DeletionJobStatus.PENDING, _now, _now, null);
+
+        assertThat(_deletionJobRepository.findByIdAndUserId(jobId, userId)).isPresent();
+        assertThat(_deletionJobRepository.findByIdAndUserId(jobId, UUID.randomUUID())).isEmpty();
+    }
+
+    // Needs committed rows and two connections, so it runs outside the test transaction
+    // and cleans up after itself.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void skipsJobLockedByAnotherWorker() throws Exception {
+        var transactionTemplate = new TransactionTemplate(_transactionManager);
+        var userId = UUID.randomUUID();
+        var first = transactionTemplate.execute(status ->
+            insertJob(userId, DeletionJobStatus.PENDING, _now.minusSeconds(20), _now.minusSeconds(60), null));
+        var second = transactionTemplate.execute(status ->
+            insertJob(userId, DeletionJobStatus.PENDING, _now.minusSeconds(10), _now.minusSeconds(60), null));
+
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var otherWorker = executor.submit(() -> transactionTemplate.execute(status -> {
+                var claimed = claim();
+                locked.countDown();
+                awaitQuietly(release);
+                return claimed;
+            }));
+
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            var claimedHere = transactionTemplate.execute(status -> claim());
+            release.countDown();
+
+            assertThat(otherWorker.get(10, TimeUnit.SECONDS)).isEqualTo(first);
+            assertThat(claimedHere).isEqualTo(second);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            _jdbcTemplate.update("delete from deletion_jobs where user_id = ?", userId);
+        }
+    }
+
+    private UUID claim() {
+        return _deletionJobRepository.lockNextClaimable(_now, _now.minus(LEASE))
+            .map(DeletionJob::getId)
+            .orElse(null);
+    }
+
+    private UUID insertJob(
+            UUID userId,
+            DeletionJobStatus status,
+            Instant createdAt,
+            Instant nextAttemptAt,
+            Instant heartbeatAt) {
+        var id = UUID.randomUUID();
+        _jdbcTemplate.update("""
+                insert into deletion_jobs (id, user_id, status, created_at, next_attempt_at, heartbeat_at)
+                values (?, ?, ?, ?, ?, ?)
+                """,
+            id,
+            userId,
+            status.name(),
+            timestamp(createdAt),
+            timestamp(nextAttemptAt),
+            heartbeatAt == null ? null : timestamp(heartbeatAt));
+        return id;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.jargoyle.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class DocumentRepositoryTests extends PostgresRepositoryTests {
+
+    @Autowired
+    private DocumentRepository _documentRepository;
+
+    @Test
+    void markDeletedHidesDocumentButKeepsRow() {
+        var userId = insertUser();
+        var documentId = insertDocument(userId, "key");
+
+        assertThat(_documentRepository.markDeleted(documentId, userId, Instant.now())).isEqualTo(1);
+
+        assertThat(_documentRepository.findByIdAndUserId(documentId, userId)).isEmpty();
+        assertThat(deletedAt(documentId)).isNotNull();
+    }
+
+    @Test
+    void markDeletedCannotDeleteAnotherUsersDocument() {
+        var ownerId = insertUser();
+        var otherUserId = insertUser();
+        var documentId = insertDocument(ownerId, "key");
+
+        assertThat(_documentRepository.markDeleted(documentId, otherUserId, Instant.now())).isZero();
+
+        assertThat(_documentRepository.findByIdAndUserId(documentId, ownerId)).isPresent();
+        assertThat(deletedAt(documentId)).isNull();
+    }
+
+    @Test
+    void markDeletedIsOnlyAppliedOnce() {
+        var userId = insertUser();
+        var documentId = insertDocument(userId, "key");
+
+        _documentRepository.markDeleted(documentId, userId, Instant.now());
+
+        assertThat(_documentRepository.markDeleted(documentId, userId, Instant.now())).isZero();
+    }
+
+    @Test
+    void findByIdAndUserIdReturnsEmptyForWrongUser() {
+        var documentId = insertDocument(insertUser(), "key");
+
+        assertThat(_documentRepository.findByIdAndUserId(documentId, insertUser())).isEmpty();
+    }
+
+    @Test
+    void versionAndViewAreScopedToTheUser() {
+        var ownerId = insertUser();
+        var documentId = insertDocument(ownerId, "key");
+        insertSummary(documentId);
+
+        assertThat(_documentRepository.findVersionByIdAndUserId(documentId, ownerId))
+            .hasValueSatisfying(version -> assertThat(version.summaryGeneratedAt()).isNotNull());
+        assertThat(_documentRepository.findViewByIdAndUserId(documentId, ownerId)).isPresent();
+
+        var otherUserId = insertUser();
+        assertThat(_documentRepository.findVersionByIdAndUserId(documentId, otherUserId)).isEmpty();
+        assertThat(_documentRepository.findViewByIdAndUserId(documentId, otherUserId)).isEmpty();
+    }
+
+    private Instant deletedAt(UUID documentId) {
+        var deletedAt = _jdbcTemplate.queryForObject(
+            "select deleted_at from documents where id = ?", Timestamp.class, documentId);
+        return deletedAt == null ? null : deletedAt.toInstant();
+    }
+}
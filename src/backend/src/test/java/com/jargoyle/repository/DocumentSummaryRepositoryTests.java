@@ -0,0 +1,83 @@
+package com.jargoyle.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.jargoyle.entity.DocumentSummary;
+
+class DocumentSummaryRepositoryTests extends PostgresRepositoryTests {
+
+    @Autowired
+    private DocumentRepository _documentRepository;
+
+    @Autowired
+    private DocumentSummaryRepository _documentSummaryRepository;
+
+    @Test
+    void regeneratingSummaryInPlaceMovesGeneratedAtAndTheVersion() {
+        var userId = insertUser();
+        var documentId = insertDocument(userId, "key");
+        var summary = saveSummary(documentId);
+        var backdated = backdate(summary.getId());
+
+        summary.setPlainSummary("Your April power bill.");
+        summary.setKeyFacts("{\"amounts\": [{\"label\": \"Total due\", \"value\": \"$167.95\"}]}");
+        _documentSummaryRepository.flush();
+
+        var version = _documentRepository.findVersionByIdAndUserId(documentId, userId).orElseThrow();
+        assertThat(version.summaryGeneratedAt()).isAfter(backdated);
+        assertThat(generatedAt(summary.getId())).isEqualTo(version.summaryGeneratedAt());
+    }
+
+    @Test
+    void unchangedSummaryKeepsGeneratedAt() {
+        var userId = insertUser();
+        var summary = saveSummary(insertDocument(userId, "key"));
+        var backdated = backdate(summary.getId());
+
+        _documentSummaryRepository.flush();
+
+        assertThat(generatedAt(summary.getId())).isEqualTo(backdated);
+    }
+
+    @Test
+    void keyFactsAndFlaggedTermsAreStoredAsJson() {
+        var summary = saveSummary(insertDocument(insertUser(), "key"));
+
+        assertThat(_jdbcTemplate.queryForObject(
+                "select jsonb_typeof(key_facts) || ',' || jsonb_typeof(flagged_terms) from document_summaries where id = ?",
+                String.class, summary.getId()))
+            .isEqualTo("object,array");
+    }
+
+    private DocumentSummary saveSummary(UUID documentId) {
+        var summary = new DocumentSummary();
+        summary.setDocument(_documentRepository.findById(documentId).orElseThrow());
+        summary.setPlainSummary("Your March power bill.");
+        summary.setKeyFacts("{\"amounts\": [{\"label\": \"Amount due\", \"value\": \"$182.40\"}]}");
+        summary.setFlaggedTerms("[{\"term\": \"fixed charge\", \"definition\": \"Charged every day.\"}]");
+        return _documentSummaryRepository.saveAndFlush(summary);
+    }
+
+    // Moves generated_at well into the past behind Hibernate's back, so a rewrite can't land
+    // on the same microsecond.
+    private Instant backdate(UUID summaryId) {
+        var backdated = Instant.now().minus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MICROS);
+        _jdbcTemplate.update("update document_summaries set generated_at = ? where id = ?",
+            timestamp(backdated), summaryId);
+        return backdated;
+    }
+
+    private Instant generatedAt(UUID summaryId) {
+        return _jdbcTemplate.queryForObject(
+            "select generated_at from document_summaries where id = ?", Timestamp.class, summaryId)
+            .toInstant();
+    }
+}
@@ -0,0 +1,90 @@
+package com.jargoyle.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Base for repository tests that need real PostgreSQL: native queries, row locking and
+ * {@code make_interval} don't behave the same anywhere else. The schema comes from the Flyway
+ * migrations, and each test runs in a transaction that's rolled back afterwards. Public so the
+ * deletion services' tests can use it too; the ones that need real commits opt out of the
+ * transaction and clean up after themselves.
+ *
+ * <p>Test data is inserted with plain SQL so each test controls exactly what's in the rows.
+ */
+@DataJpaTest(properties = {
+    // application.yml turns the datasource off when no profile is active.
+    "spring.autoconfigure.exclude=",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public abstract class PostgresRepositoryTests {
+
+    // Shared by every repository test class and stopped when the JVM exits.
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+        DockerImageName.parse("pgvector/pgvector:pg17").asCompatibleSubstituteFor("postgres"));
+
+    static {
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    protected JdbcTemplate _jdbcTemplate;
+
+    protected UUID insertUser() {
+        var id = UUID.randomUUID();
+        _jdbcTemplate.update("""
+                insert into users (id, email, display_name, oauth_provider, oauth_subject)
+                values (?, ?, 'Test User', 'google', ?)
+                """,
+            id, id + "@example.com", id.toString());
+        return id;
+    }
+
+    protected UUID insertDocument(UUID userId, String storageKey) {
+        var id = UUID.randomUUID();
+        _jdbcTemplate.update("""
+                insert into documents (id, user_id, title, input_type, storage_key, status)
+                values (?, ?, 'Power bill', 'PDF', ?, 'READY')
+                """,
+            id, userId, storageKey);
+        return id;
+    }
+
+    protected void insertSummary(UUID documentId) {
+        _jdbcTemplate.update("""
+                insert into document_summaries (id, document_id, plain_summary, key_facts, flagged_terms)
+                values (?, ?, 'A power bill.', '{}'::jsonb, '[]'::jsonb)
+                """,
+            UUID.randomUUID(), documentId);
+    }
+
+    protected void softDeleteDocument(UUID documentId) {
+        _jdbcTemplate.update("update documents set deleted_at = now() where id = ?", documentId);
+    }
+
+    protected int count(String table) {
+        return _jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    protected static Timestamp timestamp(Instant instant) {
+        return Timestamp.from(instant);
+    }
+}
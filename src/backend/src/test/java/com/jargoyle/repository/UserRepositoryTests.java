@@ -0,0 +1,35 @@
+package com.jargoyle.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class UserRepositoryTests extends PostgresRepositoryTests {
+
+    @Autowired
+    private UserRepository _userRepository;
+
+    @Test
+    void markDeletedFlagsUserOnce() {
+        var userId = insertUser();
+
+        assertThat(_userRepository.markDeleted(userId, Instant.now())).isEqualTo(1);
+        assertThat(_userRepository.markDeleted(userId, Instant.now())).isZero();
+
+        assertThat(_userRepository.findById(userId)).hasValueSatisfying(user ->
+            assertThat(user.isDeleted()).isTrue());
+    }
+
+    @Test
+    void markDeletedLeavesDocumentsInPlace() {
+        var userId = insertUser();
+        insertDocument(userId, "key");
+
+        _userRepository.markDeleted(userId, Instant.now());
+
+        assertThat(count("documents")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,187 @@
+package com.jargoyle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.jargoyle.dto.CachedAnswer;
+import com.jargoyle.entity.Document;
+import com.jargoyle.entity.DocumentType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AnswerCacheServiceTests {
+
+    private static final float[] DUE_DATE = { 1f, 0f, 0f };
+    private static final float[] LATE_FEE = { 0f, 1f, 0f };
+    private static final float[] ACCOUNT = { 0f, 0f, 1f };
+
+    private SimpleMeterRegistry _meterRegistry;
+    private AnswerCacheService _cache;
+
+    @BeforeEach
+    void setUp() {
+        _meterRegistry = new SimpleMeterRegistry();
+        _cache = new AnswerCacheService(_meterRegistry, 0.95, 2, 2);
+    }
+
+    @Test
+    void returnsAnswerForSimilarQuestion() {
+        var document = document();
+        var answer = answer("Due 20 April.");
+        _cache.store(document, DUE_DATE, answer);
+
+        // Cosine similarity ~0.98, and magnitude doesn't matter.
+        assertThat(_cache.lookup(document, new float[] { 1f, 0.2f, 0f })).contains(answer);
+        assertThat(_cache.lookup(document, new float[] { 3f, 0f, 0f })).contains(answer);
+        assertThat(requests("hit")).isEqualTo(2);
+    }
+
+    @Test
+    void missesBelowThreshold() {
+        var document = document();
+        _cache.store(document, DUE_DATE, answer("Due 20 April."));
+
+        // Cosine similarity ~0.89.
+        assertThat(_cache.lookup(document, new float[] { 1f, 0.5f, 0f })).isEmpty();
+        assertThat(_cache.lookup(document, LATE_FEE)).isEmpty();
+        assertThat(requests("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void returnsClosestStoredAnswer() {
+        var document = document();
+        _cache.store(document, DUE_DATE, answer("Due 20 April."));
+        var lateFee = answer("$15 if late.");
+        _cache.store(document, LATE_FEE, lateFee);
+
+        assertThat(_cache.lookup(document, new float[] { 0.1f, 1f, 0f })).contains(lateFee);
+    }
+
+    @Test
+    void answersAreScopedToTheDocument() {
+        _cache.store(document(), DUE_DATE, answer("Due 20 April."));
+
+        assertThat(_cache.lookup(document(), DUE_DATE)).isEmpty();
+    }
+
+    @Test
+    void reprocessedDocumentInvalidatesItsAnswers() {
+        var document = document();
+        _cache.store(document, DUE_DATE, answer("Due 20 April."));
+
+        ReflectionTestUtils.setField(document, "updatedAt", document.getUpdatedAt().plusSeconds(60));
+
+        assertThat(_cache.lookup(document, DUE_DATE)).isEmpty();
+        assertThat(_cache.size()).isZero();
+        assertThat(counter("invalidations")).isEqualTo(1);
+        assertThat(counter("evictions")).isZero();
+    }
+
+    @Test
+    void reclassifiedDocumentInvalidatesItsAnswers() {
+        var document = document();
+        _cache.store(document, DUE_DATE, answer("Due 20 April."));
+
+        document.setDocumentType(DocumentType.CONTRACT);
+
+        assertThat(_cache.lookup(document, DUE_DATE)).isEmpty();
+        assertThat(counter("invalidations")).isEqualTo(1);
+    }
+
+    @Test
+    void storeAfterChangeReplacesStaleAnswers() {
+        var document = document();
+        _cache.store(document, DUE_DATE, answer("Due 20 April."));
+        _cache.store(document, LATE_FEE, answer("$15 if late."));
+
+        ReflectionTestUtils.setField(document, "updatedAt", document.getUpdatedAt().plusSeconds(60));
+        var updated = answer("Due 20 May.");
+        _cache.store(document, DUE_DATE, updated);
+
+        assertThat(_cache.size()).isEqualTo(1);
+        assertThat(_cache.lookup(document, DUE_DATE)).contains(updated);
+        assertThat(counter("invalidations")).isEqualTo(2);
+        assertThat(counter("evictions")).isZero();
+    }
+
+    @Test
+    void invalidateDropsDocumentAnswers() {
+        var document = document();
+        _cache.store(document, DUE_DATE, answer("Due 20 April."));
+        _cache.store(document, LATE_FEE, answer("$15 if late."));
+
+        _cache.invalidate(document.getId());
+        _cache.invalidate(UUID.randomUUID());
+
+        assertThat(_cache.lookup(document, DUE_DATE)).isEmpty();
+        assertThat(counter("invalidations")).isEqualTo(2);
+    }
+
+    @Test
+    void keepsNewestEntriesPerDocument() {
+        var document = document();
+        _cache.store(document, DUE_DATE, answer("Due 20 April."));
+        _cache.store(document, LATE_FEE, answer("$15 if late."));
+        _cache.store(document, ACCOUNT, answer("4455-1234."));
+
+        assertThat(_cache.size()).isEqualTo(2);
+        assertThat(_cache.lookup(document, DUE_DATE)).isEmpty();
+        assertThat(_cache.lookup(document, LATE_FEE)).isPresent();
+        assertThat(_cache.lookup(document, ACCOUNT)).isPresent();
+        assertThat(counter("evictions")).isEqualTo(1);
+        assertThat(counter("invalidations")).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedDocument() {
+        var first = document();
+        var second = document();
+        var third = document();
+        _cache.store(first, DUE_DATE, answer("First."));
+        _cache.store(second, DUE_DATE, answer("Second."));
+
+        // Touching the first document makes the second the least recently used.
+        _cache.lookup(first, DUE_DATE);
+        _cache.store(third, DUE_DATE, answer("Third."));
+
+        assertThat(_cache.lookup(first, DUE_DATE)).isPresent();
+        assertThat(_cache.lookup(second, DUE_DATE)).isEmpty();
+        assertThat(_cache.lookup(third, DUE_DATE)).isPresent();
+        assertThat(counter("evictions")).isEqualTo(1);
+    }
+
+    @Test
+    void sizeGaugeCountsAnswers() {
+        _cache.store(document(), DUE_DATE, answer("First."));
+        _cache.store(document(), DUE_DATE, answer("Second."));
+
+        assertThat(_meterRegistry.get("jargoyle.chat.answer-cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    private static Document document() {
+        var document = new Document();
+        ReflectionTestUtils.setField(document, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(document, "updatedAt", Instant.parse("2026-04-01T00:00:00Z"));
+        document.setDocumentType(DocumentType.BILL);
+        return document;
+    }
+
+    private static CachedAnswer answer(String content) {
+        return new CachedAnswer(content, List.of(UUID.randomUUID()));
+    }
+
+    private double requests(String result) {
+        return _meterRegistry.get("jargoyle.chat.answer-cache.requests").tag("result", result).counter().count();
+    }
+
+    private double counter(String name) {
+        return _meterRegistry.get("jargoyle.chat.answer-cache." + name).counter().count();
+    }
+}
@@ -0,0 +1,127 @@
+package com.jargoyle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ContentSignatureServiceTests {
+
+    private static final String MARCH_BILL = """
+        Kiwi Power Ltd
+        Account number 4455-1234
+
+        Statement period 1 March 2026 to 31 March 2026.
+        Your total due is $182.40, payable by 20 April 2026.
+
+        Late payment fee: a fee of $15 applies if payment is not received by the due date.
+        Prompt payment discount of 10% is applied when paid on time.
+
+        Your plan: Everyday Saver. Daily fixed charge applies to every day of the billing period,
+        whether or not you use any power. Variable charges are based on the meter readings shown
+        below, or on an estimate where we could not read your meter.
+
+        If you are having trouble paying, talk to us early. We can set up a payment plan, and we
+        will not disconnect a medically dependent customer. You can also contact Utilities Disputes,
+        a free and independent service, if we can't resolve a complaint together.
+
+        Questions? Call 0800 123 456 or visit our website.
+        """;
+
+    private static final String APRIL_BILL = """
+        Kiwi Power Ltd
+        Account number 4455-1234
+
+        Statement period 1 April 2026 to 30 April 2026.
+        Your total due is $167.95, payable by 20 May 2026.
+
+        Late payment fee: a fee of $15 applies if payment is not received by the due date.
+        Prompt payment discount of 10% is applied when paid on time.
+
+        Your plan: Everyday Saver. Daily fixed charge applies to every day of the billing period,
+        whether or not you use any power. Variable charges are based on the meter readings shown
+        below, or on an estimate where we could not read your meter.
+
+        If you are having trouble paying, talk to us early. We can set up a payment plan, and we
+        will not disconnect a medically dependent customer. You can also contact Utilities Disputes,
+        a free and independent service, if we can't resolve a complaint together.
+
+        Questions? Call 0800 123 456 or visit our website.
+        """;
+
+    private static final String TENANCY_AGREEMENT = """
+        Residential Tenancy Agreement
+
+        The landlord agrees to let the premises to the tenant for a fixed term, with rent payable
+        fortnightly in advance. The tenant must keep the premises reasonably clean and tidy and
+        notify the landlord of any damage as soon as possible. A bond equal to four weeks' rent is
+        lodged with the tenancy bond service.
+        """;
+
+    private final ContentSignatureService _service = new ContentSignatureService();
+
+    @Test
+    void signatureIsStable() {
+        assertThat(_service.signature(MARCH_BILL)).isEqualTo(_service.signature(MARCH_BILL));
+    }
+
+    @Test
+    void documentsDifferingOnlyInDigitsHaveIdenticalSignatures() {
+        var march = "Your total due is $182.40, payable by 20/04/2026. Account 4455-1234.";
+        var april = "Your total due is $167.95, payable by 20/05/2026. Account 4455-1234.";
+
+        assertThat(_service.distance(_service.signature(march), _service.signature(april))).isZero();
+    }
+
+    @Test
+    void monthNamesAreFoldedLikeDigits() {
+        assertThat(_service.signature("Statement period 1 March 2026 to 31 March 2026, due 20 Apr"))
+            .isEqualTo(_service.signature("Statement period 1 April 2026 to 30 April 2026, due 20 May"));
+    }
+
+    @Test
+    void recurringDocumentsAreClose() {
+        var distance = _service.distance(_service.signature(MARCH_BILL), _service.signature(APRIL_BILL));
+
+        assertThat(distance).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void unrelatedDocumentsAreFarApart() {
+        var distance = _service.distance(_service.signature(MARCH_BILL), _service.signature(TENANCY_AGREEMENT));
+
+        assertThat(distance).isGreaterThan(16);
+    }
+
+    @Test
+    void signatureIgnoresCaseAndPunctuation() {
+        assertThat(_service.signature("Total due: $182.40 by the due date"))
+            .isEqualTo(_service.signature("TOTAL DUE $182.40 -- by the due date!"));
+    }
+
+    @Test
+    void distanceCountsDifferingBits() {
+        assertThat(_service.distance(0b1011L, 0b0010L)).isEqualTo(2);
+        assertThat(_service.distance(0L, -1L)).isEqualTo(64);
+    }
+
+    @Test
+    void sectionsSplitOnBlankLines() {
+        var sections = _service.sections("First section\nstill first\n\n  \nSecond section\n\n\n\nThird");
+
+        assertThat(sections).extracting(ContentSignatureService.Section::text)
+            .containsExactly("First section\nstill first", "Second section", "Third");
+    }
+
+    @Test
+    void sectionHashesIgnoreWhitespaceAndCaseButNotDigits() {
+        var original = _service.sections("Total due  is\n$182.40").getFirst().hash();
+
+        assertThat(_service.sections("total due is $182.40").getFirst().hash()).isEqualTo(original);
+        assertThat(_service.sections("Total due is $167.95").getFirst().hash()).isNotEqualTo(original);
+    }
+
+    @Test
+    void sectionsOfBlankTextIsEmpty() {
+        assertThat(_service.sections("\n\n   \n")).isEmpty();
+    }
+}
@@ -0,0 +1,98 @@
+package com.jargoyle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.jargoyle.entity.DeletionJobStatus;
+import com.jargoyle.repository.DeletionJobRepository;
+import com.jargoyle.repository.DocumentRepository;
+import com.jargoyle.repository.PostgresRepositoryTests;
+import com.jargoyle.repository.UserRepository;
+
+class DeletionServiceTests extends PostgresRepositoryTests {
+
+    @Autowired
+    private DocumentRepository _documentRepository;
+
+    @Autowired
+    private UserRepository _userRepository;
+
+    @Autowired
+    private DeletionJobRepository _deletionJobRepository;
+
+    private AnswerCacheService _answerCacheService;
+    private DeletionService _deletionService;
+
+    @BeforeEach
+    void setUp() {
+        _answerCacheService = mock(AnswerCacheService.class);
+        _deletionService = new DeletionService(
+            _documentRepository, _userRepository, _deletionJobRepository, _answerCacheService);
+    }
+
+    @Test
+    void documentDeletionSoftDeletesAndQueuesAJob() {
+        var userId = insertUser();
+        var documentId = insertDocument(userId, "key");
+
+        var job = _deletionService.requestDocumentDeletion(documentId, userId).orElseThrow();
+
+        assertThat(job.getUserId()).isEqualTo(userId);
+        assertThat(job.getDocumentId()).isEqualTo(documentId);
+        assertThat(job.getStatus()).isEqualTo(DeletionJobStatus.PENDING);
+        assertThat(job.getNextAttemptAt()).isNotNull();
+        assertThat(_documentRepository.findByIdAndUserId(documentId, userId)).isEmpty();
+        verify(_answerCacheService).invalidate(documentId);
+    }
+
+    @Test
+    void documentDeletionIsEmptyForAnotherUsersDocument() {
+        var documentId = insertDocument(insertUser(), "key");
+
+        assertThat(_deletionService.requestDocumentDeletion(documentId, insertUser())).isEmpty();
+        assertThat(_deletionJobRepository.count()).isZero();
+        verify(_answerCacheService, never()).invalidate(any());
+    }
+
+    @Test
+    void documentDeletionIsRequestedOnce() {
+        var userId = insertUser();
+        var documentId = insertDocument(userId, "key");
+
+        _deletionService.requestDocumentDeletion(documentId, userId);
+
+        assertThat(_deletionService.requestDocumentDeletion(documentId, userId)).isEmpty();
+        assertThat(_deletionJobRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void accountDeletionIsRequestedOnce() {
+        var userId = insertUser();
+
+        var job = _deletionService.requestAccountDeletion(userId).orElseThrow();
+
+        assertThat(job.isAccountDeletion()).isTrue();
+        assertThat(_userRepository.findById(userId)).hasValueSatisfying(user -> assertThat(user.isDeleted()).isTrue());
+        // A second request that got past the resolver before the first committed.
+        assertThat(_deletionService.requestAccountDeletion(userId)).isEmpty();
+        assertThat(_deletionJobRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void findJobIsScopedToTheUser() {
+        var userId = insertUser();
+        var job = _deletionService.requestAccountDeletion(userId).orElseThrow();
+
+        assertThat(_deletionService.findJob(job.getId(), userId)).isPresent();
+        assertThat(_deletionService.findJob(job.getId(), UUID.randomUUID())).isEmpty();
+    }
+}
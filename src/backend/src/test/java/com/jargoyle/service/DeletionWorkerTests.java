@@ -0,0 +1,298 @@
+package com.jargoyle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jargoyle.entity.DeletionJob;
+import com.jargoyle.entity.DeletionJobStatus;
+import com.jargoyle.repository.DeletionBatchRepository;
+import com.jargoyle.repository.DeletionJobRepository;
+import com.jargoyle.repository.PostgresRepositoryTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The worker commits each batch in its own transaction, and the lock tests need a second
+// connection, so these run outside the test transaction and clean up after themselves.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeletionWorkerTests extends PostgresRepositoryTests {
+
+    private static final int BATCH_SIZE = 2;
+    private static final Duration LOCK_TIMEOUT = Duration.ofMillis(200);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration RETRY_BASE_DELAY = Duration.ofSeconds(30);
+
+    @Autowired
+    private DeletionJobRepository _deletionJobRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate _namedParameterJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager _transactionManager;
+
+    private DeletionBatchRepository _deletionBatchRepository;
+    private SimpleMeterRegistry _meterRegistry;
+    private DeletionWorker _worker;
+
+    @BeforeEach
+    void setUp() {
+        _deletionBatchRepository = spy(new DeletionBatchRepository(_namedParameterJdbcTemplate));
+        _meterRegistry = new SimpleMeterRegistry();
+        _worker = new DeletionWorker(
+            _deletionJobRepository,
+            _deletionBatchRepository,
+            new TransactionTemplate(_transactionManager),
+            _meterRegistry,
+            BATCH_SIZE,
+            Duration.ofMinutes(5),
+            LOCK_TIMEOUT,
+            MAX_ATTEMPTS,
+            RETRY_BASE_DELAY,
+            Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // Every other test rolls back, so anything left in these tables is ours.
+        for (var table : List.of("stored_file_deletions", "deletion_jobs", "document_summaries", "documents", "users")) {
+            _jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void deletesAccountInBatchesAndTheUserLast() {
+        var userId = insertUser();
+        var keys = List.of("a", "b", "c", "d", "e");
+        for (var key : keys) {
+            insertSummary(insertDocument(userId, key));
+        }
+        softDeleteDocument(_jdbcTemplate.queryForObject(
+            "select id from documents where storage_key = 'c'", UUID.class));
+        markUserDeleted(userId);
+        var jobId = insertJob(userId, null);
+
+        _worker.processPendingJobs();
+
+        var job = job(jobId);
+        assertThat(job.getStatus()).isEqualTo(DeletionJobStatus.COMPLETED);
+        assertThat(job.getDocumentsTotal()).isEqualTo(5);
+        assertThat(job.getDocumentsDeleted()).isEqualTo(5);
+        assertThat(job.getFilesQueued()).isEqualTo(5);
+        assertThat(job.getAttempts()).isZero();
+        assertThat(job.getCompletedAt()).isNotNull();
+
+        assertThat(_jdbcTemplate.queryForList("select storage_key from stored_file_deletions", String.class))
+            .containsExactlyInAnyOrderElementsOf(keys);
+        assertThat(count("documents")).isZero();
+        assertThat(count("document_summaries")).isZero();
+        assertThat(count("users")).isZero();
+
+        var inOrder = inOrder(_deletionBatchRepository);
+        inOrder.verify(_deletionBatchRepository, times(3)).deleteDocuments(any());
+        inOrder.verify(_deletionBatchRepository).deleteUserIfEmpty(userId);
+
+        assertThat(counter("jargoyle.deletion.documents.deleted")).isEqualTo(5);
+        assertThat(jobs("completed")).isEqualTo(1);
+        assertThat(jobs("retried")).isZero();
+    }
+
+    @Test
+    void deletesSingleDocumentOnly() {
+        var userId = insertUser();
+        var documentId = insertDocument(userId, "a");
+        insertDocument(userId, "b");
+        softDeleteDocument(documentId);
+        var jobId = insertJob(userId, documentId);
+
+        _worker.processPendingJobs();
+
+        var job = job(jobId);
+        assertThat(job.getStatus()).isEqualTo(DeletionJobStatus.COMPLETED);
+        assertThat(job.getDocumentsTotal()).isEqualTo(1);
+        assertThat(job.getDocumentsDeleted()).isEqualTo(1);
+        assertThat(_jdbcTemplate.queryForList("select storage_key from documents", String.class))
+            .containsExactly("b");
+        assertThat(count("users")).isEqualTo(1);
+    }
+
+    @Test
+    void lockedDocumentTimesOutAndIsRequeuedWithoutCountingAnAttempt() throws Exception {
+        var userId = insertUser();
+        var documentId = insertDocument(userId, "a");
+        softDeleteDocument(documentId);
+        var jobId = insertJob(userId, documentId);
+
+        var before = Instant.now();
+        whileLocked(documentId, _worker::processPendingJobs);
+
+        var job = job(jobId);
+        assertThat(job.getStatus()).isEqualTo(DeletionJobStatus.PENDING);
+        assertThat(job.getAttempts()).isZero();
+        assertThat(job.getDocumentsDeleted()).isZero();
+        assertThat(job.getNextAttemptAt()).isAfterOrEqualTo(before.plus(RETRY_BASE_DELAY).truncatedTo(ChronoUnit.MICROS));
+        assertThat(count("documents")).isEqualTo(1);
+        assertThat(jobs("completed")).isZero();
+        assertThat(jobs("retried")).isZero();
+
+        makeDue(jobId);
+        _worker.processPendingJobs();
+
+        assertThat(job(jobId).getStatus()).isEqualTo(DeletionJobStatus.COMPLETED);
+        assertThat(count("documents")).isZero();
+    }
+
+    @Test
+    void accountWithLockedDocumentIsRequeuedAndTheUserKept() throws Exception {
+        var userId = insertUser();
+        insertDocument(userId, "a");
+        var locked = insertDocument(userId, "b");
+        insertDocument(userId, "c");
+        markUserDeleted(userId);
+        var jobId = insertJob(userId, null);
+
+        whileLocked(locked, _worker::processPendingJobs);
+
+        var job = job(jobId);
+        assertThat(job.getStatus()).isEqualTo(DeletionJobStatus.PENDING);
+        assertThat(job.getAttempts()).isZero();
+        assertThat(job.getDocumentsDeleted()).isEqualTo(2);
+        assertThat(_jdbcTemplate.queryForList("select id from documents", UUID.class)).containsExactly(locked);
+        assertThat(count("users")).isEqualTo(1);
+        assertThat(_jdbcTemplate.queryForList("select storage_key from stored_file_deletions", String.class))
+            .containsExactlyInAnyOrder("a", "c");
+
+        makeDue(jobId);
+        _worker.processPendingJobs();
+
+        job = job(jobId);
+        assertThat(job.getStatus()).isEqualTo(DeletionJobStatus.COMPLETED);
+        assertThat(job.getDocumentsTotal()).isEqualTo(3);
+        assertThat(job.getDocumentsDeleted()).isEqualTo(3);
+        assertThat(job.getFilesQueued()).isEqualTo(3);
+        assertThat(count("users")).isZero();
+    }
+
+    @Test
+    void failingJobBacksOffThenFailsAtMaxAttempts() {
+        doThrow(new IllegalStateException("disk on fire")).when(_deletionBatchRepository).queueStoredFiles(any());
+        var userId = insertUser();
+        var documentId = insertDocument(userId, "a");
+        softDeleteDocument(documentId);
+        var jobId = insertJob(userId, documentId);
+
+        for (var attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            var before = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            _worker.processPendingJobs();
+            var after = Instant.now();
+
+            var job = job(jobId);
+            var delay = RETRY_BASE_DELAY.multipliedBy(1L << (attempt - 1));
+            assertThat(job.getStatus()).isEqualTo(DeletionJobStatus.PENDING);
+            assertThat(job.getAttempts()).isEqualTo(attempt);
+            assertThat(job.getErrorMessage()).isEqualTo("disk on fire");
+            assertThat(job.getNextAttemptAt()).isBetween(before.plus(delay), after.plus(delay));
+            assertThat(job.getCompletedAt()).isNull();
+
+            makeDue(jobId);
+        }
+
+        _worker.processPendingJobs();
+
+        var job = job(jobId);
+        assertThat(job.getStatus()).isEqualTo(DeletionJobStatus.FAILED);
+        assertThat(job.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(job.getErrorMessage()).isEqualTo("disk on fire");
+        assertThat(job.getCompletedAt()).isNotNull();
+        // Each failed batch rolled back, so the document is still there, soft-deleted.
+        assertThat(count("documents")).isEqualTo(1);
+        assertThat(jobs("retried")).isEqualTo(MAX_ATTEMPTS - 1);
+        assertThat(jobs("failed")).isEqualTo(1);
+
+        makeDue(jobId);
+        _worker.processPendingJobs();
+        assertThat(job(jobId).getAttempts()).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    private UUID insertJob(UUID userId, UUID documentId) {
+        var id = UUID.randomUUID();
+        _jdbcTemplate.update(
+            "insert into deletion_jobs (id, user_id, document_id, next_attempt_at) values (?, ?, ?, ?)",
+            id, userId, documentId, timestamp(Instant.now().minusSeconds(1)));
+        return id;
+    }
+
+    private DeletionJob job(UUID jobId) {
+        return _deletionJobRepository.findById(jobId).orElseThrow();
+    }
+
+    private void makeDue(UUID jobId) {
+        _jdbcTemplate.update("update deletion_jobs set next_attempt_at = ? where id = ?",
+            timestamp(Instant.now().minusSeconds(1)), jobId);
+    }
+
+    private void markUserDeleted(UUID userId) {
+        _jdbcTemplate.update("update users set deleted_at = now() where id = ?", userId);
+    }
+
+    // Runs the action while another transaction holds a row lock on the document.
+    private void whileLocked(UUID documentId, Runnable action) throws Exception {
+        var transactionTemplate = new TransactionTemplate(_transactionManager);
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                _jdbcTemplate.queryForList("select id from documents where id = ? for update", documentId);
+                locked.countDown();
+                awaitQuietly(release);
+            }));
+
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            action.run();
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private double counter(String name) {
+        return _meterRegistry.get(name).counter().count();
+    }
+
+    private double jobs(String result) {
+        return _meterRegistry.get("jargoyle.deletion.jobs").tag("result", result).counter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
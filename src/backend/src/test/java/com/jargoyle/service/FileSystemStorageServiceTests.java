@@ -0,0 +1,124 @@
+package com.jargoyle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSystemStorageServiceTests {
+
+    @TempDir
+    Path _rootDir;
+
+    private FileSystemStorageService _storageService;
+    private final UUID _userId = UUID.randomUUID();
+    private final UUID _documentId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        _storageService = new FileSystemStorageService(_rootDir.toString());
+    }
+
+    @Test
+    void storeLaysOutFilesByUserAndDocument() throws IOException {
+        var key = store("bill.pdf", "content");
+
+        assertThat(key).isEqualTo(Path.of(_userId.toString(), _documentId.toString(), "bill.pdf").toString());
+        assertThat(Files.readString(_rootDir.resolve(key))).isEqualTo("content");
+    }
+
+    @Test
+    void storeDropsDirectoriesFromTheOriginalFilename() {
+        var key = store("../../etc/bill.pdf", "content");
+
+        assertThat(Path.of(key).getFileName().toString()).isEqualTo("bill.pdf");
+        assertThat(_rootDir.resolve(key).normalize()).startsWith(_rootDir.resolve(_userId.toString()));
+    }
+
+    @Test
+    void loadReturnsStoredContent() throws IOException {
+        var key = store("bill.pdf", "content");
+
+        try (var in = _storageService.load(key).getInputStream()) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("content");
+        }
+    }
+
+    @Test
+    void loadThrowsForMissingFile() {
+        assertThatThrownBy(() -> _storageService.load("missing/bill.pdf"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void deleteRemovesFileAndEmptyDirectories() {
+        var key = store("bill.pdf", "content");
+
+        _storageService.delete(key);
+
+        assertThat(_rootDir.resolve(_userId.toString())).doesNotExist();
+        assertThat(_rootDir).exists();
+    }
+
+    @Test
+    void deleteKeepsDirectoriesThatStillHaveFiles() {
+        var key = store("bill.pdf", "content");
+        var otherDocumentId = UUID.randomUUID();
+        var otherKey = _storageService.store(_userId, otherDocumentId, "lease.pdf", stream("other"));
+
+        _storageService.delete(key);
+
+        assertThat(_rootDir.resolve(_userId.toString()).resolve(_documentId.toString())).doesNotExist();
+        assertThat(_rootDir.resolve(otherKey)).exists();
+    }
+
+    @Test
+    void deleteIgnoresMissingFile() {
+        _storageService.delete(Path.of(_userId.toString(), _documentId.toString(), "bill.pdf").toString());
+    }
+
+    @Test
+    void rejectsKeysOutsideTheRoot() {
+        assertThatThrownBy(() -> _storageService.delete("../outside.pdf"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> _storageService.load("../outside.pdf"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsFilenamesThatAreNotFiles() {
+        for (var filename : new String[] { "", "  ", ".", "..", "../..", "uploads/..", "/" }) {
+            assertThatThrownBy(() -> store(filename, "content"))
+                .as(filename)
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(_rootDir.resolve(_userId.toString())).doesNotExist();
+    }
+
+    @Test
+    void rejectsKeysResolvingToTheRoot() {
+        for (var key : new String[] { "", ".", "user/..", _userId + "/" + _documentId + "/../.." }) {
+            assertThatThrownBy(() -> _storageService.delete(key))
+                .as(key)
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(_rootDir).exists();
+    }
+
+    private String store(String filename, String content) {
+        return _storageService.store(_userId, _documentId, filename, stream(content));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
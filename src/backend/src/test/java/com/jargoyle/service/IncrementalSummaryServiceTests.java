@@ -0,0 +1,304 @@
+package com.jargoyle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.jargoyle.dto.DocumentSummaryResult;
+import com.jargoyle.dto.IncrementalSummaryPlan;
+import com.jargoyle.dto.SignedDocument;
+import com.jargoyle.entity.Document;
+import com.jargoyle.entity.DocumentSummary;
+import com.jargoyle.entity.DocumentType;
+import com.jargoyle.entity.User;
+import com.jargoyle.repository.DocumentRepository;
+import com.jargoyle.repository.DocumentSummaryRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class IncrementalSummaryServiceTests {
+
+    private static final List<String> MARCH_SECTIONS = List.of(
+        "Kiwi Power Ltd. Account number 4455-1234. Everyday Saver plan.",
+        "Statement period 1 March 2026 to 31 March 2026. Your total due is $182.40, payable by 20 April 2026.",
+        "Late payment fee: a fee of $15 applies if payment is not received by the due date. Prompt payment "
+            + "discount of 10% is applied when paid on time.",
+        "Daily fixed charge applies to every day of the billing period, whether or not you use any power. "
+            + "Variable charges are based on the meter readings shown below.",
+        "If you are having trouble paying, talk to us early. We can set up a payment plan, and we will not "
+            + "disconnect a medically dependent customer.",
+        "You can contact Utilities Disputes, a free and independent service, if we can't resolve a complaint "
+            + "together. Questions? Call 0800 123 456.");
+
+    private static final String APRIL_STATEMENT =
+        "Statement period 1 April 2026 to 30 April 2026. Your total due is $167.95, payable by 20 May 2026.";
+
+    private final JsonMapper _jsonMapper = JsonMapper.builder().build();
+    private final ContentSignatureService _contentSignatureService = new ContentSignatureService();
+    private final UUID _previousId = UUID.randomUUID();
+
+    private DocumentRepository _documentRepository;
+    private DocumentSummaryRepository _documentSummaryRepository;
+    private SimpleMeterRegistry _meterRegistry;
+    private IncrementalSummaryService _service;
+    private User _user;
+
+    @BeforeEach
+    void setUp() {
+        _documentRepository = mock(DocumentRepository.class);
+        _documentSummaryRepository = mock(DocumentSummaryRepository.class);
+        _meterRegistry = new SimpleMeterRegistry();
+        _service = new IncrementalSummaryService(
+            _documentRepository, _documentSummaryRepository, _contentSignatureService, _jsonMapper,
+            _meterRegistry, 6, 0.5, 20);
+
+        _user = new User();
+        ReflectionTestUtils.setField(_user, "id", UUID.randomUUID());
+    }
+
+    // --- plan ---
+
+    @Test
+    void plansChangedAndRemovedSections() {
+        var april = withSection(1, APRIL_STATEMENT);
+        var document = document(april, null);
+        matchPrevious(document, DocumentType.BILL, summary("Your March power bill.", "{}", "[]"));
+
+        var plan = _service.plan(document).orElseThrow();
+
+        assertThat(plan.previousDocumentId()).isEqualTo(_previousId);
+        assertThat(plan.documentType()).isEqualTo(DocumentType.BILL);
+        assertThat(plan.changedText()).isEqualTo(APRIL_STATEMENT);
+        assertThat(plan.changedSections()).isEqualTo(1);
+        assertThat(plan.removedText()).isEqualTo(MARCH_SECTIONS.get(1));
+        assertThat(plan.removedSections()).isEqualTo(1);
+        assertThat(plan.totalSections()).isEqualTo(MARCH_SECTIONS.size());
+        assertThat(plan.previousPlainSummary()).isEqualTo("Your March power bill.");
+        assertThat(plan.estimatedTokensSaved()).isPositive();
+
+        assertThat(uploads("incremental")).isEqualTo(1);
+        assertThat(_meterRegistry.get("jargoyle.summary.tokens.saved").summary().totalAmount())
+            .isEqualTo(plan.estimatedTokensSaved());
+    }
+
+    @Test
+    void storesSignatureWithBulkUpdateOnly() {
+        var document = document(join(MARCH_SECTIONS), null);
+
+        _service.plan(document);
+
+        verify(_documentRepository).updateContentSignature(
+            document.getId(), _contentSignatureService.signature(join(MARCH_SECTIONS)));
+        assertThat(document.getContentSignature()).isNull();
+    }
+
+    @Test
+    void restrictsCandidatesToKnownType() {
+        var document = document(join(MARCH_SECTIONS), DocumentType.BILL);
+
+        _service.plan(document);
+
+        verify(_documentRepository).findSignedDocuments(
+            _user.getId(), document.getId(), DocumentType.BILL, Limit.of(20));
+    }
+
+    @Test
+    void fallsBackWithoutTextToSign() {
+        var plan = _service.plan(document("  ", null));
+
+        assertThat(plan).isEmpty();
+        verify(_documentRepository, never()).updateContentSignature(any(), anyLong());
+        assertThat(uploads("full")).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackWhenNoCandidateIsCloseEnough() {
+        var document = document(withSection(1, APRIL_STATEMENT), null);
+        var signature = _contentSignatureService.signature(document.getExtractedText());
+        when(_documentRepository.findSignedDocuments(any(), any(), isNull(), any()))
+            .thenReturn(List.of(new SignedDocument(_previousId, DocumentType.BILL, ~signature)));
+
+        assertThat(_service.plan(document)).isEmpty();
+        assertThat(uploads("full")).isEqualTo(1);
+        assertThat(_meterRegistry.get("jargoyle.summary.tokens.saved").summary().totalAmount()).isZero();
+    }
+
+    @Test
+    void fallsBackWhenTooManySectionsChanged() {
+        var text = withSection(1, APRIL_STATEMENT);
+        text = replaceSection(text, 2, "Late fees have changed: a fee of $25 now applies.");
+        text = replaceSection(text, 3, "Daily fixed charges are now shown separately.");
+        text = replaceSection(text, 4, "Payment plans are available on request.");
+        var document = document(text, null);
+        matchPrevious(document, DocumentType.BILL, summary("Your March power bill.", "{}", "[]"));
+
+        assertThat(_service.plan(document)).isEmpty();
+    }
+
+    @Test
+    void fallsBackWhenTooManySectionsWereRemoved() {
+        var document = document(join(MARCH_SECTIONS.subList(0, 2)), null);
+        matchPrevious(document, DocumentType.BILL, summary("Your March power bill.", "{}", "[]"));
+
+        assertThat(_service.plan(document)).isEmpty();
+    }
+
+    @Test
+    void fallsBackWhenContextCostsMoreThanItSaves() {
+        var document = document(withSection(1, APRIL_STATEMENT), null);
+        matchPrevious(document, DocumentType.BILL, summary("x".repeat(5_000), "{}", "[]"));
+
+        assertThat(_service.plan(document)).isEmpty();
+        assertThat(uploads("full")).isEqualTo(1);
+        assertThat(uploads("incremental")).isZero();
+    }
+
+    // --- applyDelta ---
+
+    @Test
+    void touchedKeyFactCategoriesAreReplacedAndOthersCarriedForward() {
+        var plan = plan("""
+            {
+              "amounts": [{"label": "Amount due", "value": "$182.40"}, {"label": "Late fee", "value": "$15"}],
+              "dates": [{"label": "Due date", "value": "20 April 2026"}],
+              "parties": [{"label": "Provider", "value": "Kiwi Power Ltd"}]
+            }
+            """, "[]");
+        var delta = delta("""
+            {
+              "amounts": [{"label": "Total due", "value": "$167.95"}, {"label": "Late fee", "value": "$15"}],
+              "dates": [{"label": "Due date", "value": "20 May 2026"}]
+            }
+            """, null);
+
+        var result = _service.applyDelta(plan, delta);
+
+        assertThat(_jsonMapper.readTree(result.keyFacts())).isEqualTo(_jsonMapper.readTree("""
+            {
+              "amounts": [{"label": "Total due", "value": "$167.95"}, {"label": "Late fee", "value": "$15"}],
+              "dates": [{"label": "Due date", "value": "20 May 2026"}],
+              "parties": [{"label": "Provider", "value": "Kiwi Power Ltd"}]
+            }
+            """));
+    }
+
+    @Test
+    void keyFactsAreKeptWhenDeltaHasNone() {
+        var previous = "{\"amounts\": [{\"label\": \"Amount due\", \"value\": \"$182.40\"}]}";
+
+        assertThat(_service.applyDelta(plan(previous, "[]"), delta(null, null)).keyFacts()).isEqualTo(previous);
+        assertThat(_service.applyDelta(plan(previous, "[]"), delta(" ", null)).keyFacts()).isEqualTo(previous);
+    }
+
+    @Test
+    void unparseableKeyFactsPreferTheDelta() {
+        var result = _service.applyDelta(plan("{}", "[]"), delta("not json", null));
+
+        assertThat(result.keyFacts()).isEqualTo("not json");
+    }
+
+    @Test
+    void returnedFlaggedTermsReplaceThePreviousList() {
+        var plan = plan("{}", "[{\"term\": \"pro rata\", \"definition\": \"Proportional.\"}]");
+        var replacement = "[{\"term\": \"fixed charge\", \"definition\": \"Charged every day.\"}]";
+
+        assertThat(_service.applyDelta(plan, delta(null, replacement)).flaggedTerms()).isEqualTo(replacement);
+        assertThat(_service.applyDelta(plan, delta(null, "[]")).flaggedTerms()).isEqualTo("[]");
+        assertThat(_service.applyDelta(plan, delta(null, null)).flaggedTerms()).isEqualTo(plan.previousFlaggedTerms());
+    }
+
+    @Test
+    void missingFieldsFallBackToThePreviousSummary() {
+        var result = _service.applyDelta(plan("{}", "[]"), delta(null, null));
+
+        assertThat(result.plainSummary()).isEqualTo("Your March power bill.");
+        assertThat(result.title()).isEqualTo("March power bill");
+        assertThat(result.documentType()).isEqualTo("BILL");
+    }
+
+    @Test
+    void deltaFieldsTakePrecedence() {
+        var delta = new DocumentSummaryResult("Your April power bill.", null, null, "April power bill", "OTHER");
+
+        var result = _service.applyDelta(plan("{}", "[]"), delta);
+
+        assertThat(result.plainSummary()).isEqualTo("Your April power bill.");
+        assertThat(result.title()).isEqualTo("April power bill");
+        assertThat(result.documentType()).isEqualTo("OTHER");
+    }
+
+    // --- Helpers ---
+
+    private Document document(String text, DocumentType type) {
+        var document = new Document();
+        ReflectionTestUtils.setField(document, "id", UUID.randomUUID());
+        document.setUser(_user);
+        document.setExtractedText(text);
+        document.setDocumentType(type);
+        return document;
+    }
+
+    // Makes the March bill the closest candidate for "document", with the given summary.
+    private void matchPrevious(Document document, DocumentType type, DocumentSummary summary) {
+        var signature = _contentSignatureService.signature(document.getExtractedText());
+        when(_documentRepository.findSignedDocuments(any(), any(), any(), any()))
+            .thenReturn(List.of(new SignedDocument(_previousId, type, signature)));
+
+        var previous = document(join(MARCH_SECTIONS), type);
+        previous.setTitle("March power bill");
+        when(_documentRepository.findById(_previousId)).thenReturn(Optional.of(previous));
+        when(_documentSummaryRepository.findByDocumentId(_previousId)).thenReturn(Optional.of(summary));
+    }
+
+    private static DocumentSummary summary(String plainSummary, String keyFacts, String flaggedTerms) {
+        var summary = new DocumentSummary();
+        summary.setPlainSummary(plainSummary);
+        summary.setKeyFacts(keyFacts);
+        summary.setFlaggedTerms(flaggedTerms);
+        return summary;
+    }
+
+    private IncrementalSummaryPlan plan(String previousKeyFacts, String previousFlaggedTerms) {
+        return new IncrementalSummaryPlan(
+            _previousId, DocumentType.BILL, APRIL_STATEMENT, 1, MARCH_SECTIONS.get(1), 1, MARCH_SECTIONS.size(),
+            "Your March power bill.", previousKeyFacts, previousFlaggedTerms, "March power bill", 100);
+    }
+
+    private static DocumentSummaryResult delta(String keyFacts, String flaggedTerms) {
+        return new DocumentSummaryResult(null, keyFacts, flaggedTerms, null, null);
+    }
+
+    private double uploads(String mode) {
+        return _meterRegistry.get("jargoyle.summary.uploads").tag("mode", mode).counter().count();
+    }
+
+    private static String withSection(int index, String section) {
+        return replaceSection(join(MARCH_SECTIONS), index, section);
+    }
+
+    private static String replaceSection(String text, int index, String section) {
+        var sections = new ArrayList<>(List.of(text.split("\n\n")));
+        sections.set(index, section);
+        return join(sections);
+    }
+
+    private static String join(List<String> sections) {
+        return String.join("\n\n", sections);
+    }
+}
@@ -0,0 +1,103 @@
+package com.jargoyle.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.jargoyle.repository.DeletionBatchRepository;
+import com.jargoyle.repository.PostgresRepositoryTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StoredFileCleanupServiceTests extends PostgresRepositoryTests {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private NamedParameterJdbcTemplate _namedParameterJdbcTemplate;
+
+    private StorageService _storageService;
+    private SimpleMeterRegistry _meterRegistry;
+    private StoredFileCleanupService _cleanupService;
+
+    @BeforeEach
+    void setUp() {
+        _storageService = mock(StorageService.class);
+        _meterRegistry = new SimpleMeterRegistry();
+        _cleanupService = new StoredFileCleanupService(
+            new DeletionBatchRepository(_namedParameterJdbcTemplate),
+            _storageService,
+            _meterRegistry,
+            10,
+            MAX_ATTEMPTS,
+            Duration.ofSeconds(30),
+            Duration.ofHours(6));
+    }
+
+    @Test
+    void deletedFileIsRemovedFromTheQueue() {
+        insertStoredFile("user/doc/bill.pdf", 0);
+
+        _cleanupService.deleteQueuedFiles();
+
+        assertThat(count("stored_file_deletions")).isZero();
+        assertThat(files("deleted")).isEqualTo(1);
+    }
+
+    @Test
+    void failedDeleteRecordsTheErrorAndStaysQueued() {
+        doThrow(new UncheckedIOException("Could not delete user/doc/bill.pdf.", new IOException("disk on fire")))
+            .when(_storageService).delete("user/doc/bill.pdf");
+        var failed = insertStoredFile("user/doc/bill.pdf", 0);
+        insertStoredFile("user/doc/lease.pdf", 0);
+
+        _cleanupService.deleteQueuedFiles();
+
+        assertThat(_jdbcTemplate.queryForList("select id from stored_file_deletions", UUID.class))
+            .containsExactly(failed);
+        assertThat(_jdbcTemplate.queryForMap(
+                "select attempts, last_error from stored_file_deletions where id = ?", failed))
+            .containsEntry("attempts", 1)
+            .containsEntry("last_error", "Could not delete user/doc/bill.pdf.");
+        assertThat(files("deleted")).isEqualTo(1);
+        assertThat(files("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void fileIsNotRetriedAfterMaxAttempts() {
+        doThrow(new IllegalStateException("disk on fire")).when(_storageService).delete("user/doc/bill.pdf");
+        var id = insertStoredFile("user/doc/bill.pdf", MAX_ATTEMPTS - 1);
+
+        _cleanupService.deleteQueuedFiles();
+        _jdbcTemplate.update(
+            "update stored_file_deletions set next_attempt_at = now() - interval '1 second' where id = ?", id);
+        _cleanupService.deleteQueuedFiles();
+
+        assertThat(_jdbcTemplate.queryForObject(
+            "select attempts from stored_file_deletions where id = ?", Integer.class, id)).isEqualTo(MAX_ATTEMPTS);
+        assertThat(files("failed")).isEqualTo(1);
+    }
+
+    private UUID insertStoredFile(String storageKey, int attempts) {
+        return _jdbcTemplate.queryForObject("""
+                insert into stored_file_deletions (storage_key, attempts)
+                values (?, ?)
+                returning id
+                """,
+            UUID.class, storageKey, attempts);
+    }
+
+    private double files(String result) {
+        return _meterRegistry.get("jargoyle.deletion.files").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,177 @@
+package com.jargoyle.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+class OidcSecurityContextCodecTests {
+
+    private final OidcSecurityContextCodec _codec = new OidcSecurityContextCodec(
+        new DefaultSerializer(), new DefaultDeserializer(getClass().getClassLoader()));
+
+    @Test
+    void roundTripsOidcLogin() {
+        var decoded = _codec.decode(_codec.tryEncode(TestSecurityContexts.oidcContext()));
+
+        assertThat(decoded).isExactlyInstanceOf(SecurityContextImpl.class);
+        var token = (OAuth2AuthenticationToken) decoded.getAuthentication();
+        assertThat(token.getAuthorizedClientRegistrationId()).isEqualTo("google");
+        assertThat(token.isAuthenticated()).isTrue();
+
+        var principal = (DefaultOidcUser) token.getPrincipal();
+        assertThat(principal.getName()).isEqualTo("google-123");
+        assertThat(principal.getIdToken().getTokenValue()).isEqualTo("id-token-value");
+        assertThat(principal.getIdToken().getIssuedAt()).isEqualTo(TestSecurityContexts.ISSUED_AT);
+        assertThat(principal.getIdToken().getExpiresAt()).isEqualTo(TestSecurityContexts.ISSUED_AT.plusSeconds(3600));
+        assertThat(principal.getUserInfo().getClaims())
+            .isEqualTo(TestSecurityContexts.userInfo().getClaims());
+
+        var details = (WebAuthenticationDetails) token.getDetails();
+        assertThat(details.getRemoteAddress()).isEqualTo("127.0.0.1");
+        assertThat(details.getSessionId()).isEqualTo("session-1");
+    }
+
+    @Test
+    void roundTripsEveryClaimType() {
+        var claims = ((DefaultOidcUser) _codec.decode(_codec.tryEncode(TestSecurityContexts.oidcContext()))
+            .getAuthentication().getPrincipal()).getIdToken().getClaims();
+
+        var expected = TestSecurityContexts.idTokenClaims();
+        assertThat(claims.keySet()).containsExactlyElementsOf(expected.keySet());
+        assertThat(claims.get("sub")).isEqualTo("google-123");
+        assertThat(claims.get("aud")).isEqualTo(List.of("jargoyle-client-id"));
+        assertThat(claims.get("iat")).isEqualTo(TestSecurityContexts.ISSUED_AT);
+        assertThat(claims.get("exp")).isEqualTo(TestSecurityContexts.ISSUED_AT.plusSeconds(3600));
+        assertThat(claims.get("email_verified")).isEqualTo(true);
+        assertThat(claims.get("auth_time")).isEqualTo(1_767_261_600L);
+        assertThat(claims.get("login_count")).isEqualTo(3);
+        assertThat(claims.get("score")).isEqualTo(0.5);
+        assertThat(claims.get("address")).isEqualTo(Map.of("country", "NZ"));
+        // Compared as text: URL.equals resolves host names.
+        assertThat(claims.get("iss")).isInstanceOf(URL.class);
+        assertThat(((URL) claims.get("iss")).toExternalForm()).isEqualTo("https://accounts.google.com");
+    }
+
+    @Test
+    void roundTripsAuthorities() {
+        var original = TestSecurityContexts.oidcContext();
+        var originalPrincipal = (DefaultOidcUser) original.getAuthentication().getPrincipal();
+        var token = (OAuth2AuthenticationToken) _codec.decode(_codec.tryEncode(original)).getAuthentication();
+        var principal = (DefaultOidcUser) token.getPrincipal();
+
+        assertThat(principal.getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactlyElementsOf(originalPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        assertThat(token.getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactlyInAnyOrder("OIDC_USER", "SCOPE_openid");
+
+        var oidcAuthority = principal.getAuthorities().stream()
+            .filter(OidcUserAuthority.class::isInstance)
+            .map(OidcUserAuthority.class::cast)
+            .findFirst()
+            .orElseThrow();
+        assertThat(oidcAuthority.getIdToken().getTokenValue()).isEqualTo("id-token-value");
+        assertThat(oidcAuthority.getUserInfo().getClaims()).isEqualTo(TestSecurityContexts.userInfo().getClaims());
+    }
+
+    @Test
+    void encodingIsDeterministic() {
+        var context = TestSecurityContexts.oidcContext();
+        var encoded = _codec.tryEncode(context);
+
+        assertThat(_codec.tryEncode(context)).isEqualTo(encoded);
+        assertThat(_codec.tryEncode(TestSecurityContexts.oidcContext())).isEqualTo(encoded);
+        // What SharedSessionRepository relies on to skip writes: decoding and re-encoding
+        // an unchanged context gives back the same bytes.
+        assertThat(_codec.tryEncode(_codec.decode(encoded))).isEqualTo(encoded);
+    }
+
+    @Test
+    void rejectsNonOidcAuthentication() {
+        var context = new SecurityContextImpl(
+            UsernamePasswordAuthenticationToken.authenticated("ada", null, List.of(new SimpleGrantedAuthority("USER"))));
+
+        assertThat(_codec.tryEncode(context)).isNull();
+    }
+
+    @Test
+    void rejectsSecurityContextSubclass() {
+        var context = new SecurityContextImpl(TestSecurityContexts.oidcContext().getAuthentication()) { };
+
+        assertThat(_codec.tryEncode(context)).isNull();
+    }
+
+    @Test
+    void rejectsPlainOAuth2Principal() {
+        var principal = new DefaultOAuth2User(
+            List.of(new SimpleGrantedAuthority("USER")), Map.of("sub", "google-123"), "sub");
+        var context = new SecurityContextImpl(
+            new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+
+        assertThat(_codec.tryEncode(context)).isNull();
+    }
+
+    @Test
+    void rejectsPrincipalNamedByAnotherClaim() {
+        var original = (DefaultOidcUser) TestSecurityContexts.oidcContext().getAuthentication().getPrincipal();
+        var principal = new DefaultOidcUser(
+            original.getAuthorities(), original.getIdToken(), original.getUserInfo(), "email");
+        var context = new SecurityContextImpl(
+            new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+
+        assertThat(_codec.tryEncode(context)).isNull();
+    }
+
+    @Test
+    void rejectsUnsupportedClaimValue() {
+        var claims = TestSecurityContexts.idTokenClaims();
+        claims.put("session_ref", UUID.randomUUID());
+
+        assertThat(_codec.tryEncode(TestSecurityContexts.oidcContext(claims, List.of()))).isNull();
+    }
+
+    @Test
+    void rejectsNonSerializableAuthority() {
+        GrantedAuthority authority = () -> "CUSTOM";
+        var context = TestSecurityContexts.oidcContext(TestSecurityContexts.idTokenClaims(), List.of(authority));
+
+        assertThat(_codec.tryEncode(context)).isNull();
+    }
+
+    @Test
+    void javaSerializesUnrecognisedSerializableAuthority() {
+        var context = TestSecurityContexts.oidcContext(
+            TestSecurityContexts.idTokenClaims(), List.of(new CustomAuthority("CUSTOM")));
+
+        var decoded = _codec.decode(_codec.tryEncode(context));
+
+        assertThat(decoded.getAuthentication().getAuthorities()).contains(new CustomAuthority("CUSTOM"));
+    }
+
+    record CustomAuthority(String name) implements GrantedAuthority, Serializable {
+        @Override
+        public String getAuthority() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.jargoyle.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+
+class SessionAttributeCodecTests {
+
+    private static final String SECURITY_CONTEXT = "SPRING_SECURITY_CONTEXT";
+
+    private final SessionAttributeCodec _codec = new SessionAttributeCodec(getClass().getClassLoader());
+
+    @Test
+    void roundTripsAttributesInOrder() {
+        var attributes = new LinkedHashMap<String, Object>();
+        attributes.put("redirect", "/documents");
+        attributes.put(SECURITY_CONTEXT, TestSecurityContexts.oidcContext());
+        attributes.put("uploads", List.of(1, 2, 3));
+
+        var decoded = _codec.decode(_codec.encode(attributes));
+
+        assertThat(decoded.keySet()).containsExactly("redirect", SECURITY_CONTEXT, "uploads");
+        assertThat(decoded.get("redirect")).isEqualTo("/documents");
+        assertThat(decoded.get("uploads")).isEqualTo(List.of(1, 2, 3));
+        var token = (OAuth2AuthenticationToken) ((SecurityContext) decoded.get(SECURITY_CONTEXT)).getAuthentication();
+        assertThat(token.getName()).isEqualTo("google-123");
+    }
+
+    @Test
+    void reencodingUnchangedAttributesGivesSameBytes() {
+        var attributes = new LinkedHashMap<String, Object>();
+        attributes.put("redirect", "/documents");
+        attributes.put(SECURITY_CONTEXT, TestSecurityContexts.oidcContext());
+        var encoded = _codec.encode(attributes);
+
+        assertThat(_codec.encode(attributes)).isEqualTo(encoded);
+        assertThat(_codec.encode(_codec.decode(encoded))).isEqualTo(encoded);
+    }
+
+    @Test
+    void fallsBackToJavaSerializationForOtherSecurityContexts() {
+        var context = new SecurityContextImpl(
+            UsernamePasswordAuthenticationToken.authenticated("ada", null, List.of(new SimpleGrantedAuthority("USER"))));
+
+        var decoded = (SecurityContext) _codec.decode(_codec.encode(Map.of(SECURITY_CONTEXT, context))).get(SECURITY_CONTEXT);
+
+        assertThat(decoded.getAuthentication()).isInstanceOf(UsernamePasswordAuthenticationToken.class);
+        assertThat(decoded.getAuthentication().getName()).isEqualTo("ada");
+    }
+
+    @Test
+    void rejectsUnknownFormatVersion() {
+        var encoded = _codec.encode(Map.of("redirect", "/documents"));
+        encoded[3] = 99;
+
+        assertThatThrownBy(() -> _codec.decode(encoded))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("format version 99");
+    }
+}
@@ -0,0 +1,146 @@
+package com.jargoyle.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class SharedSessionRepositoryTests {
+
+    private static final String SECURITY_CONTEXT = "SPRING_SECURITY_CONTEXT";
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration TOUCH_INTERVAL = Duration.ofMinutes(1);
+
+    private final SessionAttributeCodec _codec = new SessionAttributeCodec(getClass().getClassLoader());
+    private SessionStore _store;
+    private SharedSessionRepository _repository;
+    private Instant _lastAccessed;
+
+    @BeforeEach
+    void setUp() {
+        _store = mock(SessionStore.class);
+        _repository = new SharedSessionRepository(
+            _store, _codec, TIMEOUT, 100, Duration.ofSeconds(5), TOUCH_INTERVAL, Duration.ofHours(1), 500);
+        _lastAccessed = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Test
+    void savingUnchangedSessionWritesNothing() {
+        var session = load(stored(3, Map.of(SECURITY_CONTEXT, TestSecurityContexts.oidcContext())));
+
+        _repository.save(session);
+
+        verifyNoWrites();
+    }
+
+    @Test
+    void resettingAnAttributeToAnEqualValueWritesNothing() {
+        var session = load(stored(3, Map.of(SECURITY_CONTEXT, TestSecurityContexts.oidcContext())));
+
+        // Spring Security re-saves the context at the end of every request.
+        session.setAttribute(SECURITY_CONTEXT, TestSecurityContexts.oidcContext());
+        _repository.save(session);
+
+        verifyNoWrites();
+    }
+
+    @Test
+    void touchesOnlyAfterTouchInterval() {
+        var session = load(stored(3, Map.of("redirect", "/documents")));
+
+        session.setLastAccessedTime(_lastAccessed.plus(TOUCH_INTERVAL).minusSeconds(1));
+        _repository.save(session);
+        verifyNoWrites();
+
+        var touchedAt = _lastAccessed.plus(TOUCH_INTERVAL);
+        when(_store.touch("s1", touchedAt, TIMEOUT)).thenReturn(true);
+        session.setLastAccessedTime(touchedAt);
+        _repository.save(session);
+
+        verify(_store).touch("s1", touchedAt, TIMEOUT);
+        verify(_store, never()).update(any(), anyLong());
+    }
+
+    @Test
+    void changedAttributeIsWrittenWithNextVersion() {
+        var session = load(stored(3, Map.of("redirect", "/documents")));
+        when(_store.update(any(), eq(3L))).thenReturn(true);
+
+        session.setAttribute("redirect", "/upload");
+        _repository.save(session);
+
+        var written = ArgumentCaptor.forClass(StoredSession.class);
+        verify(_store).update(written.capture(), eq(3L));
+        assertThat(written.getValue().version()).isEqualTo(4);
+        assertThat(_codec.decode(written.getValue().attributes())).containsEntry("redirect", "/upload");
+    }
+
+    @Test
+    void conflictingWriteIsReappliedOnTopOfNewerCopy() {
+        var stale = stored(3, Map.of("redirect", "/documents"));
+        var current = stored(4, Map.of(
+            "redirect", "/documents",
+            SECURITY_CONTEXT, TestSecurityContexts.oidcContext()));
+        when(_store.findById("s1")).thenReturn(Optional.of(stale), Optional.of(current));
+        when(_store.update(any(), eq(3L))).thenReturn(false);
+        when(_store.update(any(), eq(4L))).thenReturn(true);
+
+        // This node's copy predates another node's login; it only changes "redirect".
+        var session = _repository.findById("s1");
+        session.setAttribute("redirect", "/upload");
+        _repository.save(session);
+
+        var written = ArgumentCaptor.forClass(StoredSession.class);
+        verify(_store).update(written.capture(), eq(4L));
+        assertThat(written.getValue().version()).isEqualTo(5);
+        var attributes = _codec.decode(written.getValue().attributes());
+        assertThat(attributes).containsEntry("redirect", "/upload");
+        assertThat(attributes).containsKey(SECURITY_CONTEXT);
+        assertThat(session.<Object>getAttribute(SECURITY_CONTEXT)).isNotNull();
+    }
+
+    @Test
+    void conflictWithDeletedSessionDropsTheWrite() {
+        when(_store.findById("s1")).thenReturn(Optional.of(stored(3, Map.of("redirect", "/documents"))), Optional.empty());
+        when(_store.update(any(), eq(3L))).thenReturn(false);
+
+        var session = _repository.findById("s1");
+        session.setAttribute("redirect", "/upload");
+        _repository.save(session);
+
+        verify(_store, never()).insert(any());
+        verify(_store).update(any(), eq(3L));
+    }
+
+    private SharedSession load(StoredSession stored) {
+        when(_store.findById(stored.id())).thenReturn(Optional.of(stored));
+        return _repository.findById(stored.id());
+    }
+
+    private StoredSession stored(long version, Map<String, Object> attributes) {
+        return new StoredSession(
+            "s1", _codec.encode(new LinkedHashMap<>(attributes)), version, _lastAccessed, _lastAccessed, TIMEOUT);
+    }
+
+    private void verifyNoWrites() {
+        verify(_store, never()).insert(any());
+        verify(_store, never()).update(any(), anyLong());
+        verify(_store, never()).touch(any(), any(), any());
+        verify(_store, never()).changeId(any(), any());
+    }
+}
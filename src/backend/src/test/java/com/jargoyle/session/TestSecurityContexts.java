@@ -0,0 +1,90 @@
+package com.jargoyle.session;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Builds security contexts shaped like the ones a Google OIDC login leaves in the session.
+ */
+final class TestSecurityContexts {
+
+    static final Instant ISSUED_AT = Instant.parse("2026-01-01T10:00:00Z");
+
+    private TestSecurityContexts() { }
+
+    /**
+     * ID token claims covering every claim type the codec has a tag for.
+     */
+    static Map<String, Object> idTokenClaims() {
+        var claims = new LinkedHashMap<String, Object>();
+        claims.put(IdTokenClaimNames.SUB, "google-123");
+        claims.put(IdTokenClaimNames.ISS, url("https://accounts.google.com"));
+        claims.put(IdTokenClaimNames.AUD, List.of("jargoyle-client-id"));
+        claims.put(IdTokenClaimNames.IAT, ISSUED_AT);
+        claims.put(IdTokenClaimNames.EXP, ISSUED_AT.plusSeconds(3600));
+        claims.put("email_verified", true);
+        claims.put("auth_time", 1_767_261_600L);
+        claims.put("login_count", 3);
+        claims.put("score", 0.5);
+        claims.put("address", new LinkedHashMap<>(Map.of("country", "NZ")));
+        return claims;
+    }
+
+    static OidcIdToken idToken(Map<String, Object> claims) {
+        return new OidcIdToken("id-token-value", ISSUED_AT, ISSUED_AT.plusSeconds(3600), claims);
+    }
+
+    static OidcUserInfo userInfo() {
+        var claims = new LinkedHashMap<String, Object>();
+        claims.put(IdTokenClaimNames.SUB, "google-123");
+        claims.put("name", "Ada Lovelace");
+        claims.put("email", "ada@example.com");
+        return new OidcUserInfo(claims);
+    }
+
+    static SecurityContextImpl oidcContext() {
+        return oidcContext(idTokenClaims(), List.of());
+    }
+
+    /**
+     * An OIDC login context, with {@code extraAuthorities} added to the principal's authorities.
+     */
+    static SecurityContextImpl oidcContext(Map<String, Object> claims, List<GrantedAuthority> extraAuthorities) {
+        var idToken = idToken(claims);
+        var userInfo = userInfo();
+
+        var authorities = new ArrayList<GrantedAuthority>();
+        authorities.add(new OidcUserAuthority(idToken, userInfo));
+        authorities.add(new SimpleGrantedAuthority("SCOPE_openid"));
+        authorities.addAll(extraAuthorities);
+
+        var principal = new DefaultOidcUser(authorities, idToken, userInfo, IdTokenClaimNames.SUB);
+        var token = new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google");
+        token.setDetails(new WebAuthenticationDetails("127.0.0.1", "session-1"));
+        return new SecurityContextImpl(token);
+    }
+
+    private static Object url(String value) {
+        try {
+            return URI.create(value).toURL();
+        } catch (MalformedURLException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+}